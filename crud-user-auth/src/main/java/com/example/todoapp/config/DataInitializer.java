@@ -8,14 +8,17 @@ import com.example.todoapp.domain.enums.TaskPriority;
 import com.example.todoapp.repository.RoleRepository;
 import com.example.todoapp.repository.TaskRepository;
 import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.service.RoleRegistry;
+import com.example.todoapp.service.TaskCounterService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 @Configuration
 public class DataInitializer {
@@ -24,23 +27,28 @@ public class DataInitializer {
     public CommandLineRunner initData(RoleRepository roleRepository, 
                                      UserRepository userRepository,
                                      TaskRepository taskRepository,
-                                     PasswordEncoder encoder) {
-        return args -> {
+                                     TaskCounterService taskCounterService,
+                                     RoleRegistry roleRegistry,
+                                     PasswordEncoder encoder,
+                                     PlatformTransactionManager transactionManager) {
+        // Numa transação de escrita, as verificações leem o primário e não a réplica, que pode estar atrasada
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return args -> transactionTemplate.executeWithoutResult(status -> {
             if (roleRepository.count() == 0) {
                 Role userRole = new Role();
                 userRole.setName(ERole.ROLE_USER);
-                roleRepository.save(userRole);
                 
                 Role modRole = new Role();
                 modRole.setName(ERole.ROLE_MODERATOR);
-                roleRepository.save(modRole);
                 
                 Role adminRole = new Role();
                 adminRole.setName(ERole.ROLE_ADMIN);
-                roleRepository.save(adminRole);
+
+                roleRepository.saveAll(List.of(userRole, modRole, adminRole));
                 
                 System.out.println("Roles inicializadas com sucesso!");
             }
+            roleRegistry.load();
             
             if (!userRepository.existsByUsername("test")) {
                 User testUser = new User();
@@ -48,11 +56,7 @@ public class DataInitializer {
                 testUser.setEmail("test@example.com");
                 testUser.setPassword(encoder.encode("password"));
                 
-                Set<Role> roles = new HashSet<>();
-                Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                        .orElseThrow(() -> new RuntimeException("Role não encontrada"));
-                roles.add(userRole);
-                testUser.setRoles(roles);
+                testUser.setRoles(roleRegistry.resolve(null));
                 
                 userRepository.save(testUser);
                 System.out.println("Usuário de teste criado com sucesso!");
@@ -65,7 +69,6 @@ public class DataInitializer {
                 task1.setCreatedAt(LocalDateTime.now().minusDays(5));
                 task1.setUpdatedAt(LocalDateTime.now().minusDays(2));
                 task1.setUser(testUser);
-                taskRepository.save(task1);
                 
                 Task task2 = new Task();
                 task2.setTitle("Implementar GraphQL");
@@ -75,7 +78,6 @@ public class DataInitializer {
                 task2.setCreatedAt(LocalDateTime.now().minusDays(3));
                 task2.setDueDate(LocalDateTime.now().plusDays(2));
                 task2.setUser(testUser);
-                taskRepository.save(task2);
                 
                 Task task3 = new Task();
                 task3.setTitle("Escrever documentação");
@@ -85,10 +87,12 @@ public class DataInitializer {
                 task3.setCreatedAt(LocalDateTime.now().minusDays(1));
                 task3.setDueDate(LocalDateTime.now().plusDays(5));
                 task3.setUser(testUser);
-                taskRepository.save(task3);
+
+                taskRepository.saveAll(List.of(task1, task2, task3));
+                taskCounterService.recount(testUser.getId());
                 
                 System.out.println("Tarefas de exemplo criadas com sucesso!");
             }
-        };
+        });
     }
 }
@@ -0,0 +1,33 @@
+package com.example.todoapp.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+
+/**
+ * Gerenciador JCache das regiões do cache de segundo nível, criado pelo Caffeine a partir de
+ * hibernate.javax.cache.uri. O Hibernate recebe a instância pronta: resolvendo a URI sozinho, ele
+ * só encontra um recurso "classpath:" dentro do jar empacotado, e não nos testes.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public CacheManager hibernateCacheManager(@Value("${spring.jpa.properties.hibernate.javax.cache.uri}") URI uri) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        return provider.getCacheManager(uri, provider.getDefaultClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.todoapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Escolhe o pool pela transação corrente: transações somente leitura vão para a réplica e o
+ * resto (escritas e acessos fora de transação) para o primário. Fica atrás de um
+ * LazyConnectionDataSourceProxy, porque a marca de somente leitura só é registrada depois que
+ * o gerenciador de transações pede a conexão.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagPolicy lagPolicy;
+
+    public ReadWriteRoutingDataSource(ReplicaLagPolicy lagPolicy) {
+        this.lagPolicy = lagPolicy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return lagPolicy.mustReadFromPrimary() ? Route.PRIMARY : Route.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(this)) {
+            // A janela de atraso conta a partir do commit da escrita
+            String key = lagPolicy.currentKey();
+            if (key != null) {
+                TransactionSynchronizationManager.bindResource(this, key);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+                        if (status == STATUS_COMMITTED) {
+                            lagPolicy.recordWrite(key);
+                        }
+                    }
+                });
+            }
+        }
+        return Route.PRIMARY;
+    }
+}
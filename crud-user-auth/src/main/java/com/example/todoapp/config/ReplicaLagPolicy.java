@@ -0,0 +1,61 @@
+package com.example.todoapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Leitura das próprias escritas com uma réplica atrasada: depois do commit de uma escrita, as
+ * transações somente leitura do mesmo usuário continuam no primário por replicaMaxLagMs, o
+ * atraso máximo tolerado da réplica. Acessos sem usuário autenticado não são acompanhados.
+ */
+@Component
+public class ReplicaLagPolicy {
+
+    private final long maxLagMs;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaLagPolicy(@Value("${todoapp.app.replicaMaxLagMs}") long maxLagMs,
+                            @Value("${todoapp.app.replicaLagMaxUsers}") long maxUsers) {
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(Math.max(maxLagMs, 1)))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    /**
+     * Usuário da requisição corrente, ou null fora de uma requisição autenticada
+     */
+    public String currentKey() {
+        if (maxLagMs <= 0) {
+            return null;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    public void recordWrite(String key) {
+        if (key != null) {
+            recentWriters.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Indica se a leitura do usuário corrente ainda pode não estar na réplica
+     */
+    public boolean mustReadFromPrimary() {
+        String key = currentKey();
+        return key != null && recentWriters.getIfPresent(key) != null;
+    }
+}
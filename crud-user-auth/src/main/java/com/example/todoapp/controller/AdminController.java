@@ -1,7 +1,10 @@
 package com.example.todoapp.controller;
 
+import com.example.todoapp.dto.DashboardSnapshot;
 import com.example.todoapp.dto.UserDTO;
 import com.example.todoapp.payload.response.MessageResponse;
+import com.example.todoapp.service.ActivityRollupService;
+import com.example.todoapp.service.DashboardService;
 import com.example.todoapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +15,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +24,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,21 +40,32 @@ public class AdminController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private ActivityRollupService activityRollupService;
+    
+    @Value("${todoapp.app.maxTasksPerUser}")
+    private int maxTasksPerUser;
+    
     @GetMapping("/dashboard")
-    @Operation(summary = "Dashboard administrativo", description = "Retorna estatísticas gerais do sistema")
+    @Operation(summary = "Dashboard administrativo", description = "Retorna estatísticas gerais do sistema, recalculadas periodicamente em segundo plano")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Estatísticas retornadas com sucesso"),
             @ApiResponse(responseCode = "403", description = "Acesso negado - apenas administradores")
     })
     public ResponseEntity<Map<String, Object>> getDashboard() {
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
         Map<String, Object> dashboard = new HashMap<>();
         
-        dashboard.put("totalUsers", 0);
-        dashboard.put("activeUsers", 0);
-        dashboard.put("totalTasks", 0);
-        dashboard.put("completedTasks", 0);
-        dashboard.put("pendingTasks", 0);
-        dashboard.put("overdueTasks", 0);
+        dashboard.put("totalUsers", snapshot.totalUsers());
+        dashboard.put("activeUsers", snapshot.activeUsers());
+        dashboard.put("totalTasks", snapshot.totalTasks());
+        dashboard.put("completedTasks", snapshot.completedTasks());
+        dashboard.put("pendingTasks", snapshot.pendingTasks());
+        dashboard.put("overdueTasks", snapshot.overdueTasks());
+        dashboard.put("generatedAt", snapshot.generatedAt());
         
         return ResponseEntity.ok(dashboard);
     }
@@ -68,6 +85,32 @@ public class AdminController {
         }
     }
     
+    @PostMapping("/activity/backfill")
+    @Operation(summary = "Recalcular atividade diária",
+            description = "Recalcula os totais diários de atividade do período a partir de usuários e tarefas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totais recalculados"),
+            @ApiResponse(responseCode = "400", description = "Datas inválidas"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado - apenas administradores")
+    })
+    public ResponseEntity<MessageResponse> backfillActivity(
+            @Parameter(description = "Data de início (YYYY-MM-DD)") @RequestParam String startDate,
+            @Parameter(description = "Data de fim (YYYY-MM-DD)") @RequestParam String endDate) {
+        try {
+            LocalDate start = LocalDate.parse(startDate);
+            LocalDate end = LocalDate.parse(endDate);
+            if (start.isAfter(end)) {
+                return ResponseEntity.badRequest()
+                        .body(new MessageResponse("Erro: a data de início é posterior à data de fim"));
+            }
+            int days = activityRollupService.backfill(start, end);
+            return ResponseEntity.ok(new MessageResponse("Atividade recalculada: " + days + " dias com atividade"));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Erro: datas devem estar no formato YYYY-MM-DD"));
+        }
+    }
+    
     @GetMapping("/reports/users")
     @Operation(summary = "Relatório de usuários", description = "Gera relatório detalhado dos usuários")
     @ApiResponses(value = {
@@ -92,7 +135,7 @@ public class AdminController {
         Map<String, Object> settings = new HashMap<>();
         settings.put("allowUserRegistration", true);
         settings.put("defaultUserRole", "USER");
-        settings.put("maxTasksPerUser", 100);
+        settings.put("maxTasksPerUser", maxTasksPerUser);
         settings.put("sessionTimeout", 3600);
         
         return ResponseEntity.ok(settings);
@@ -1,16 +1,18 @@
 package com.example.todoapp.controller;
 
-import com.example.todoapp.domain.enums.ERole;
 import com.example.todoapp.domain.Role;
 import com.example.todoapp.domain.User;
 import com.example.todoapp.payload.request.LoginRequest;
 import com.example.todoapp.payload.request.SignupRequest;
 import com.example.todoapp.payload.response.JwtResponse;
 import com.example.todoapp.payload.response.MessageResponse;
-import com.example.todoapp.repository.RoleRepository;
 import com.example.todoapp.repository.UserRepository;
 import com.example.todoapp.security.jwt.JwtUtils;
+import com.example.todoapp.security.jwt.RevokedTokenStore;
 import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.service.ActivityRollupService;
+import com.example.todoapp.service.RoleRegistry;
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -27,7 +29,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -44,7 +45,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
 
     @Autowired
     PasswordEncoder encoder;
@@ -52,6 +53,12 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    RevokedTokenStore revokedTokenStore;
+
+    @Autowired
+    ActivityRollupService activityRollupService;
+
     @PostMapping("/signin")
     @Operation(summary = "Autenticar usuário", description = "Realiza login do usuário e retorna token JWT")
     @ApiResponses(value = {
@@ -109,39 +116,36 @@ public class AuthController {
                              signUpRequest.getEmail(),
                              encoder.encode(signUpRequest.getPassword()));
 
-        Set<String> strRoles = signUpRequest.getRole();
-        Set<Role> roles = new HashSet<>();
-
-        if (strRoles == null) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-            roles.add(userRole);
-        } else {
-            strRoles.forEach(role -> {
-                switch (role) {
-                case "admin":
-                    Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                            .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                    roles.add(adminRole);
-
-                    break;
-                case "mod":
-                    Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                            .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                    roles.add(modRole);
-
-                    break;
-                default:
-                    Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                            .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                    roles.add(userRole);
-                }
-            });
-        }
+        Set<Role> roles = roleRegistry.resolve(signUpRequest.getRole());
 
         user.setRoles(roles);
         userRepository.save(user);
+        activityRollupService.userCreated();
 
         return ResponseEntity.ok(new MessageResponse("Usuário registrado com sucesso!"));
     }
+
+    @PostMapping("/signout")
+    @Operation(summary = "Encerrar sessão", description = "Revoga o token JWT enviado no cabeçalho Authorization")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token revogado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MessageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Token ausente ou inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MessageResponse.class)))
+    })
+    public ResponseEntity<?> logoutUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof Claims claims)) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new MessageResponse("Erro: Token JWT ausente ou inválido!"));
+        }
+
+        revokedTokenStore.revoke(claims);
+        SecurityContextHolder.clearContext();
+
+        return ResponseEntity.ok(new MessageResponse("Sessão encerrada com sucesso!"));
+    }
 }
@@ -1,8 +1,12 @@
 package com.example.todoapp.controller;
 
+import com.example.todoapp.domain.ActivityDaily;
+import com.example.todoapp.dto.DashboardSnapshot;
 import com.example.todoapp.dto.TaskDTO;
 import com.example.todoapp.dto.UserDTO;
 import com.example.todoapp.payload.response.MessageResponse;
+import com.example.todoapp.service.ActivityRollupService;
+import com.example.todoapp.service.DashboardService;
 import com.example.todoapp.service.TaskService;
 import com.example.todoapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -22,6 +26,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -33,12 +40,22 @@ import java.util.Map;
 @PreAuthorize("hasRole('MODERATOR') or hasRole('ADMIN')")
 public class ModeratorController {
     
+    private static final int DEFAULT_REPORT_DAYS = 30;
+    private static final int MAX_REPORT_DAYS = 366;
+    private static final int MOST_ACTIVE_USERS = 10;
+    
     @Autowired
     private UserService userService;
     
     @Autowired
     private TaskService taskService;
     
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private ActivityRollupService activityRollupService;
+    
     @GetMapping("/users")
     @Operation(summary = "Listar usuários comuns", description = "Lista usuários com role USER para moderação")
     @ApiResponses(value = {
@@ -81,13 +98,15 @@ public class ModeratorController {
             @ApiResponse(responseCode = "403", description = "Acesso negado - apenas moderadores e administradores")
     })
     public ResponseEntity<Map<String, Object>> getModerationStats() {
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
         Map<String, Object> stats = new HashMap<>();
         
-        stats.put("totalRegularUsers", 0);
-        stats.put("activeUsersToday", 0);
-        stats.put("newUsersThisWeek", 0);
-        stats.put("totalTasksCreatedToday", 0);
-        stats.put("averageTasksPerUser", 0.0);
+        stats.put("totalRegularUsers", snapshot.regularUsers());
+        stats.put("activeUsersToday", snapshot.usersActiveToday());
+        stats.put("newUsersThisWeek", snapshot.newUsersThisWeek());
+        stats.put("totalTasksCreatedToday", snapshot.tasksCreatedToday());
+        stats.put("averageTasksPerUser", snapshot.averageTasksPerUser());
+        stats.put("generatedAt", snapshot.generatedAt());
         
         return ResponseEntity.ok(stats);
     }
@@ -126,13 +145,37 @@ public class ModeratorController {
             @Parameter(description = "Data de início (YYYY-MM-DD)") @RequestParam(required = false) String startDate,
             @Parameter(description = "Data de fim (YYYY-MM-DD)") @RequestParam(required = false) String endDate) {
         
+        LocalDate end;
+        LocalDate start;
+        try {
+            end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            start = startDate != null ? LocalDate.parse(startDate) : end.minusDays(DEFAULT_REPORT_DAYS - 1);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Erro: datas devem estar no formato YYYY-MM-DD"));
+        }
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_REPORT_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Erro: o período deve ter entre 1 e " + MAX_REPORT_DAYS + " dias"));
+        }
+        
+        // Lê apenas os totais diários já agregados: uma linha por dia do período
+        long newUsers = 0;
+        long tasksCreated = 0;
+        long tasksCompleted = 0;
+        for (ActivityDaily day : activityRollupService.dailyTotals(start, end)) {
+            newUsers += day.getUsersCreated();
+            tasksCreated += day.getTasksCreated();
+            tasksCompleted += day.getTasksCompleted();
+        }
+        
         Map<String, Object> report = new HashMap<>();
         
-        report.put("period", startDate + " até " + endDate);
-        report.put("newUsers", 0);
-        report.put("tasksCreated", 0);
-        report.put("tasksCompleted", 0);
-        report.put("mostActiveUsers", new String[]{});
+        report.put("period", start + " até " + end);
+        report.put("newUsers", newUsers);
+        report.put("tasksCreated", tasksCreated);
+        report.put("tasksCompleted", tasksCompleted);
+        report.put("mostActiveUsers", activityRollupService.mostActiveUsers(start, end, MOST_ACTIVE_USERS));
         
         return ResponseEntity.ok(report);
     }
@@ -2,7 +2,16 @@ package com.example.todoapp.controller;
 
 import com.example.todoapp.domain.Task;
 import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.dto.CursorPage;
 import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.exception.TaskVersionMismatchException;
+import com.example.todoapp.payload.request.BulkTaskRequest;
+import com.example.todoapp.payload.response.BulkTaskResponse;
+import com.example.todoapp.payload.response.TaskImportResponse;
+import com.example.todoapp.payload.response.TaskSummaryResponse;
+import com.example.todoapp.security.services.CurrentUserProvider;
+import com.example.todoapp.service.TaskExportService;
+import com.example.todoapp.service.TaskImportService;
 import com.example.todoapp.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,12 +19,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -25,72 +40,172 @@ import java.util.List;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskImportService taskImportService;
+    private final TaskExportService taskExportService;
+    private final CurrentUserProvider currentUserProvider;
 
     @GetMapping
-    @Operation(summary = "Listar todas as tarefas", description = "Lista todas as tarefas do usuário autenticado")
+    @Operation(summary = "Listar todas as tarefas",
+            description = "Lista as tarefas do usuário autenticado, paginadas por cursor (use nextCursor em cursor para a próxima página)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de tarefas retornada com sucesso"),
             @ApiResponse(responseCode = "401", description = "Token JWT inválido ou ausente")
     })
-    public ResponseEntity<List<TaskDTO>> getAllTasks() {
-        List<Task> tasks = taskService.findAllTasks();
-        return ResponseEntity.ok(TaskDTO.fromEntityList(tasks));
+    public ResponseEntity<CursorPage<TaskDTO>> getAllTasks(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        CursorPage<TaskDTO> tasks = taskService.findAllTasks(cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Resumo das tarefas",
+            description = "Totais de tarefas pendentes, concluídas e atrasadas do usuário, por prioridade")
+    public ResponseEntity<TaskSummaryResponse> getTaskSummary() {
+        return ResponseEntity.ok(taskService.getTaskSummary());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskDTO> getTaskById(@PathVariable Long id) {
         Task task = taskService.findTaskById(id);
-        return ResponseEntity.ok(TaskDTO.fromEntity(task));
+        return withETag(TaskDTO.fromEntity(task));
     }
 
     @GetMapping("/status")
-    public ResponseEntity<List<TaskDTO>> getTasksByStatus(@RequestParam boolean completed) {
-        List<Task> tasks = taskService.findTasksByCompleted(completed);
-        return ResponseEntity.ok(TaskDTO.fromEntityList(tasks));
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByStatus(@RequestParam boolean completed,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        CursorPage<TaskDTO> tasks = taskService.findTasksByCompleted(completed, cursor, size);
+        return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<TaskDTO>> getTasksByPriority(@PathVariable TaskPriority priority) {
-        List<Task> tasks = taskService.findTasksByPriority(priority);
-        return ResponseEntity.ok(TaskDTO.fromEntityList(tasks));
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByPriority(@PathVariable TaskPriority priority,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        CursorPage<TaskDTO> tasks = taskService.findTasksByPriority(priority, cursor, size);
+        return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<TaskDTO>> getOverdueTasks() {
-        List<Task> tasks = taskService.findOverdueTasks();
-        return ResponseEntity.ok(TaskDTO.fromEntityList(tasks));
+    public ResponseEntity<CursorPage<TaskDTO>> getOverdueTasks(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(required = false) Integer size) {
+        CursorPage<TaskDTO> tasks = taskService.findOverdueTasks(cursor, size);
+        return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/pending")
-    public ResponseEntity<List<TaskDTO>> getPendingTasksOrderByPriorityAndDueDate() {
-        List<Task> tasks = taskService.findPendingTasksOrderByPriorityAndDueDate();
-        return ResponseEntity.ok(TaskDTO.fromEntityList(tasks));
+    public ResponseEntity<CursorPage<TaskDTO>> getPendingTasksOrderByPriorityAndDueDate(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPage<TaskDTO> tasks = taskService.findPendingTasksOrderByPriorityAndDueDate(cursor, size);
+        return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<TaskDTO>> searchTasksByTitle(@RequestParam String title) {
-        List<Task> tasks = taskService.searchTasksByTitle(title);
-        return ResponseEntity.ok(TaskDTO.fromEntityList(tasks));
+    public ResponseEntity<CursorPage<TaskDTO>> searchTasksByTitle(@RequestParam String title,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer size) {
+        CursorPage<TaskDTO> tasks = taskService.searchTasks(title, cursor, size);
+        return ResponseEntity.ok(tasks);
     }
 
     @PostMapping
     public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskDTO taskDTO) {
-        Task task = taskDTO.toEntity();
+        Task task = taskDTO.toNewEntity();
         Task createdTask = taskService.createTask(task);
         return ResponseEntity.status(HttpStatus.CREATED).body(TaskDTO.fromEntity(createdTask));
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Exportar tarefas",
+            description = "Exporta todas as tarefas do usuário autenticado em NDJSON (format=ndjson) ou CSV (format=csv)")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@RequestParam(defaultValue = "ndjson") String format) {
+        // A escrita roda em outra thread, fora do contexto de segurança da requisição
+        Long userId = currentUserProvider.getId();
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"")
+                    .body(out -> taskExportService.exportCsv(userId, out));
+        }
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\"")
+                .body(out -> taskExportService.exportNdjson(userId, out));
+    }
+
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @Operation(summary = "Importar tarefas (NDJSON)",
+            description = "Importa um objeto JSON de tarefa por linha; linhas inválidas são puladas e listadas no relatório")
+    public ResponseEntity<TaskImportResponse> importTasksNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importNdjson(new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Importar tarefas (CSV)",
+            description = "Importa um CSV com cabeçalho (title, description, completed, dueDate, priority)")
+    public ResponseEntity<TaskImportResponse> importTasksCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(taskImportService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8)));
+    }
+
+    @PatchMapping("/bulk/complete")
+    @Operation(summary = "Concluir tarefas em massa",
+            description = "Conclui as tarefas informadas em ids ou selecionadas pelo filtro; retorna quantas foram alteradas")
+    public ResponseEntity<BulkTaskResponse> completeTasks(@RequestBody BulkTaskRequest request) {
+        return ResponseEntity.ok(new BulkTaskResponse(
+                taskService.setTasksCompleted(request.getIds(), request.getFilter(), true)));
+    }
+
+    @PatchMapping("/bulk/reopen")
+    @Operation(summary = "Reabrir tarefas em massa",
+            description = "Reabre as tarefas informadas em ids ou selecionadas pelo filtro; retorna quantas foram alteradas")
+    public ResponseEntity<BulkTaskResponse> reopenTasks(@RequestBody BulkTaskRequest request) {
+        return ResponseEntity.ok(new BulkTaskResponse(
+                taskService.setTasksCompleted(request.getIds(), request.getFilter(), false)));
+    }
+
+    @PatchMapping("/bulk/priority/{priority}")
+    @Operation(summary = "Alterar prioridade em massa",
+            description = "Altera a prioridade das tarefas informadas em ids ou selecionadas pelo filtro")
+    public ResponseEntity<BulkTaskResponse> reprioritizeTasks(@PathVariable TaskPriority priority,
+                                                              @RequestBody BulkTaskRequest request) {
+        return ResponseEntity.ok(new BulkTaskResponse(
+                taskService.setTasksPriority(request.getIds(), request.getFilter(), priority)));
+    }
+
+    @PostMapping("/bulk/delete")
+    @Operation(summary = "Excluir tarefas em massa",
+            description = "Exclui as tarefas informadas em ids ou selecionadas pelo filtro; retorna quantas foram excluídas")
+    public ResponseEntity<BulkTaskResponse> deleteTasks(@RequestBody BulkTaskRequest request) {
+        return ResponseEntity.ok(new BulkTaskResponse(
+                taskService.deleteTasks(request.getIds(), request.getFilter())));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDTO taskDTO) {
-        Task existingTask = taskService.findTaskById(id);
-        Task updatedTask = taskService.updateTask(id, taskDTO.updateEntity(existingTask));
-        return ResponseEntity.ok(TaskDTO.fromEntity(updatedTask));
+    @Operation(summary = "Atualizar tarefa",
+            description = "Envie em If-Match o ETag lido da tarefa para só gravar se ela não mudou desde então")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tarefa atualizada; o ETag traz a nova versão"),
+            @ApiResponse(responseCode = "409", description = "A tarefa foi alterada por outra requisição durante a gravação"),
+            @ApiResponse(responseCode = "412", description = "A versão em If-Match não é a versão atual da tarefa")
+    })
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDTO taskDTO,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Task updatedTask = taskService.updateTask(id, versionFromIfMatch(ifMatch), taskDTO::updateEntity);
+        return withETag(TaskDTO.fromEntity(updatedTask));
     }
 
     @PatchMapping("/{id}/toggle")
     public ResponseEntity<TaskDTO> toggleTaskCompletion(@PathVariable Long id) {
-        Task task = taskService.toggleTaskCompletion(id);
-        return ResponseEntity.ok(TaskDTO.fromEntity(task));
+        return withETag(taskService.toggleTaskCompletion(id));
+    }
+
+    @PatchMapping("/{id}/complete")
+    public ResponseEntity<TaskDTO> completeTask(@PathVariable Long id) {
+        return withETag(taskService.completeTask(id));
     }
 
     @DeleteMapping("/{id}")
@@ -98,4 +213,26 @@ public class TaskController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<TaskDTO> withETag(TaskDTO task) {
+        return ResponseEntity.ok().eTag(String.valueOf(task.version())).body(task);
+    }
+
+    /**
+     * Lê a versão esperada do cabeçalho If-Match (ETag forte ou fraco); "*" ou ausente não verifica
+     */
+    private static Long versionFromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new TaskVersionMismatchException("If-Match não corresponde a nenhuma versão da tarefa: " + ifMatch);
+        }
+    }
 }
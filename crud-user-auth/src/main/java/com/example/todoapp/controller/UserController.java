@@ -1,7 +1,10 @@
 package com.example.todoapp.controller;
 
+import com.example.todoapp.dto.DashboardSnapshot;
 import com.example.todoapp.dto.UserDTO;
 import com.example.todoapp.payload.response.MessageResponse;
+import com.example.todoapp.security.services.CurrentUserProvider;
+import com.example.todoapp.service.DashboardService;
 import com.example.todoapp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -33,6 +36,12 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private DashboardService dashboardService;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Listar todos os usuários", description = "Lista todos os usuários do sistema (apenas ADMIN)")
@@ -57,7 +66,7 @@ public class UserController {
     }
     
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.getCurrentUser().id == #id")
+    @PreAuthorize("hasRole('ADMIN') or @currentUserProvider.id == #id")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         return userService.getUserById(id)
                 .map(user -> ResponseEntity.ok(user))
@@ -65,7 +74,7 @@ public class UserController {
     }
     
     @GetMapping("/username/{username}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.getCurrentUser().username == #username")
+    @PreAuthorize("hasRole('ADMIN') or @currentUserProvider.username == #username")
     public ResponseEntity<UserDTO> getUserByUsername(@PathVariable String username) {
         return userService.getUserByUsername(username)
                 .map(user -> ResponseEntity.ok(user))
@@ -85,7 +94,7 @@ public class UserController {
     }
     
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @userService.getCurrentUser().id == #id")
+    @PreAuthorize("hasRole('ADMIN') or @currentUserProvider.id == #id")
     public ResponseEntity<?> updateUser(@PathVariable Long id, @Valid @RequestBody UserDTO userDTO) {
         try {
             UserDTO updatedUser = userService.updateUser(id, userDTO);
@@ -97,7 +106,7 @@ public class UserController {
     }
     
     @PatchMapping("/{id}/password")
-    @PreAuthorize("hasRole('ADMIN') or @userService.getCurrentUser().id == #id")
+    @PreAuthorize("hasRole('ADMIN') or @currentUserProvider.id == #id")
     public ResponseEntity<?> changePassword(
             @PathVariable Long id, 
             @RequestBody Map<String, String> passwordData) {
@@ -185,7 +194,7 @@ public class UserController {
     @GetMapping("/profile")
     public ResponseEntity<UserDTO> getCurrentUserProfile() {
         try {
-            Long currentUserId = userService.getCurrentUser().getId();
+            Long currentUserId = currentUserProvider.getId();
             return userService.getUserById(currentUserId)
                     .map(user -> ResponseEntity.ok(user))
                     .orElse(ResponseEntity.notFound().build());
@@ -197,11 +206,12 @@ public class UserController {
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getUserStats() {
+        DashboardSnapshot snapshot = dashboardService.getSnapshot();
         return ResponseEntity.ok(Map.of(
-                "message", "Endpoint de estatísticas - implementar conforme necessário",
-                "totalUsers", 0,
-                "activeUsers", 0,
-                "inactiveUsers", 0
+                "totalUsers", snapshot.totalUsers(),
+                "activeUsers", snapshot.activeUsers(),
+                "inactiveUsers", snapshot.inactiveUsers(),
+                "generatedAt", snapshot.generatedAt()
         ));
     }
 }
@@ -0,0 +1,32 @@
+package com.example.todoapp.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Totais de atividade de um dia; alterado apenas por incrementos no banco e pelo backfill
+ */
+@Entity
+@Table(name = "activity_daily")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDaily {
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Column(name = "users_created", nullable = false)
+    private long usersCreated;
+
+    @Column(name = "tasks_created", nullable = false)
+    private long tasksCreated;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private long tasksCompleted;
+}
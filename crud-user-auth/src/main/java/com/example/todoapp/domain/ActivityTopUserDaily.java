@@ -0,0 +1,43 @@
+package com.example.todoapp.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Totais de um dos usuários mais ativos de um dia encerrado
+ */
+@Entity
+@Table(name = "activity_top_users_daily")
+@IdClass(ActivityTopUserDaily.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityTopUserDaily {
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "tasks_created", nullable = false)
+    private long tasksCreated;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private long tasksCompleted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate activityDate;
+        private Long userId;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.todoapp.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Totais de atividade de um usuário num dia
+ */
+@Entity
+@Table(name = "activity_user_daily")
+@IdClass(ActivityUserDaily.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityUserDaily {
+
+    @Id
+    @Column(name = "activity_date")
+    private LocalDate activityDate;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "tasks_created", nullable = false)
+    private long tasksCreated;
+
+    @Column(name = "tasks_completed", nullable = false)
+    private long tasksCompleted;
+
+    // Coluna gerada pelo banco (tasks_created + tasks_completed), indexada por dia para ordenar os mais ativos
+    @Setter(AccessLevel.NONE)
+    @Column(name = "tasks_total", insertable = false, updatable = false)
+    private long tasksTotal;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate activityDate;
+        private Long userId;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.todoapp.domain;
 
 import com.example.todoapp.domain.enums.TaskPriority;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -17,7 +19,8 @@ import java.time.LocalDateTime;
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "O título da tarefa é obrigatório")
@@ -39,10 +42,24 @@ public class Task {
     @Column(name = "due_date")
     private LocalDateTime dueDate;
 
+    // Primeira conclusão; reabrir a tarefa não a apaga, e só ela conta no relatório de atividades
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
     @Column(name = "priority")
     @Enumerated(EnumType.STRING)
     private TaskPriority priority = TaskPriority.MEDIUM;
+
+    // Coluna gerada pelo banco a partir de priority (0 = HIGH, 1 = MEDIUM, 2 = LOW), usada na ordenação indexada
+    @Setter(AccessLevel.NONE)
+    @Column(name = "priority_rank", insertable = false, updatable = false)
+    private Integer priorityRank;
     
+    // Incrementada a cada alteração; também pelos UPDATEs em massa, que a incrementam explicitamente
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -50,6 +67,9 @@ public class Task {
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        if (completed && completedAt == null) {
+            completedAt = createdAt;
+        }
     }
 
     @PreUpdate
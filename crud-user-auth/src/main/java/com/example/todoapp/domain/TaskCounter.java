@@ -0,0 +1,45 @@
+package com.example.todoapp.domain;
+
+import com.example.todoapp.domain.enums.TaskPriority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Quantidade de tarefas de um usuário num estado de conclusão e prioridade.
+ * Alterado apenas por incrementos no banco (TaskCounterRepository.addToCount).
+ */
+@Entity
+@Table(name = "task_counters")
+@IdClass(TaskCounter.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private boolean completed;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TaskPriority priority;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private boolean completed;
+        private TaskPriority priority;
+    }
+}
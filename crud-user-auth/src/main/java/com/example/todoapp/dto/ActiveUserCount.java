@@ -0,0 +1,7 @@
+package com.example.todoapp.dto;
+
+/**
+ * Atividade somada de um usuário num período do relatório de atividades
+ */
+public record ActiveUserCount(String username, long tasksCreated, long tasksCompleted) {
+}
@@ -0,0 +1,37 @@
+package com.example.todoapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Página de uma listagem paginada por cursor (keyset)
+ * @param <T> tipo dos itens da página
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+
+    // Cursor opaco a ser enviado para buscar a próxima página; null na última página
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    /**
+     * Converte os itens da página mantendo o cursor
+     * @param mapper função de conversão de cada item
+     * @return página com os itens convertidos
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(
+                content.stream().map(mapper).collect(Collectors.toList()),
+                nextCursor,
+                hasNext);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.todoapp.dto;
+
+import com.example.todoapp.repository.DashboardCounts;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totais do sistema calculados em segundo plano; imutável, pode ser lido por várias requisições ao mesmo tempo
+ */
+public record DashboardSnapshot(
+        long totalUsers,
+        long activeUsers,
+        long regularUsers,
+        long newUsersThisWeek,
+        long totalTasks,
+        long completedTasks,
+        long overdueTasks,
+        long tasksCreatedToday,
+        long usersActiveToday,
+        LocalDateTime generatedAt) {
+
+    public static DashboardSnapshot of(DashboardCounts counts, LocalDateTime generatedAt) {
+        return new DashboardSnapshot(
+                counts.getTotalUsers(),
+                counts.getActiveUsers(),
+                counts.getRegularUsers(),
+                counts.getNewUsersThisWeek(),
+                counts.getTotalTasks(),
+                counts.getCompletedTasks(),
+                counts.getOverdueTasks(),
+                counts.getTasksCreatedToday(),
+                counts.getUsersActiveToday(),
+                generatedAt);
+    }
+
+    public long inactiveUsers() {
+        return totalUsers - activeUsers;
+    }
+
+    public long pendingTasks() {
+        return totalTasks - completedTasks;
+    }
+
+    public double averageTasksPerUser() {
+        return totalUsers == 0 ? 0.0 : (double) totalTasks / totalUsers;
+    }
+}
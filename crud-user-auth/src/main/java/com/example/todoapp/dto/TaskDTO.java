@@ -2,38 +2,39 @@ package com.example.todoapp.dto;
 
 import com.example.todoapp.domain.Task;
 import com.example.todoapp.domain.enums.TaskPriority;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
 
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+/**
+ * Representação imutável de uma tarefa. As listagens a montam direto na consulta JPQL
+ * (SELECT new), sem carregar a entidade Task no contexto de persistência.
+ */
 @Builder
-public class TaskDTO {
-    private Long id;
-    
-    @NotBlank(message = "O título da tarefa é obrigatório")
-    private String title;
-    
-    private String description;
-    
-    private boolean completed;
-    
-    private LocalDateTime createdAt;
-    
-    private LocalDateTime updatedAt;
-    
-    private LocalDateTime dueDate;
-    
-    private TaskPriority priority;
-    
+public record TaskDTO(
+        Long id,
+
+        @NotBlank(message = "O título da tarefa é obrigatório")
+        String title,
+
+        String description,
+
+        boolean completed,
+
+        LocalDateTime createdAt,
+
+        LocalDateTime updatedAt,
+
+        LocalDateTime dueDate,
+
+        TaskPriority priority,
+
+        // Versão atual da tarefa, a mesma enviada no ETag
+        Long version) {
+
     /**
      * Converte uma entidade Task para TaskDTO
      * @param task entidade a ser convertida
@@ -49,6 +50,7 @@ public class TaskDTO {
                 .updatedAt(task.getUpdatedAt())
                 .dueDate(task.getDueDate())
                 .priority(task.getPriority())
+                .version(task.getVersion())
                 .build();
     }
     
@@ -64,12 +66,12 @@ public class TaskDTO {
     }
     
     /**
-     * Converte um TaskDTO para entidade Task
-     * @return entidade Task correspondente
+     * Cria uma tarefa nova a partir do DTO. Id e versão enviados pelo cliente são ignorados:
+     * vêm da sequence e do @Version, e nunca apontam para uma tarefa existente.
+     * @return entidade Task ainda não persistida
      */
-    public Task toEntity() {
+    public Task toNewEntity() {
         Task task = new Task();
-        task.setId(this.id);
         task.setTitle(this.title);
         task.setDescription(this.description);
         task.setCompleted(this.completed);
@@ -77,7 +79,7 @@ public class TaskDTO {
         task.setPriority(this.priority != null ? this.priority : TaskPriority.MEDIUM);
         return task;
     }
-    
+
     /**
      * Atualiza uma entidade Task existente com os dados do DTO
      * @param existingTask entidade a ser atualizada
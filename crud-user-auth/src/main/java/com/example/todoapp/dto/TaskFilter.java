@@ -0,0 +1,26 @@
+package com.example.todoapp.dto;
+
+import com.example.todoapp.domain.enums.TaskPriority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Critérios para selecionar as tarefas do usuário nas operações em massa; campos nulos não filtram
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilter {
+    private Boolean completed;
+    private TaskPriority priority;
+
+    // Seleciona as tarefas com vencimento anterior a esta data
+    private LocalDateTime dueBefore;
+
+    public boolean isEmpty() {
+        return completed == null && priority == null && dueBefore == null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.todoapp.dto;
+
+/**
+ * Campos de uma tarefa usados pelo índice de busca, carregados por projeção na reconstrução.
+ */
+public record TaskText(Long id, Long userId, String title, String description) {
+}
@@ -0,0 +1,11 @@
+package com.example.todoapp.exception;
+
+/**
+ * Lançada quando uma operação em massa não recebe ids nem um filtro com algum critério.
+ */
+public class InvalidBulkSelectionException extends RuntimeException {
+
+    public InvalidBulkSelectionException(String message) {
+        super(message);
+    }
+}
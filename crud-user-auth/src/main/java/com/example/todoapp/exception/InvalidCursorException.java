@@ -0,0 +1,11 @@
+package com.example.todoapp.exception;
+
+/**
+ * Lançada quando o cursor de paginação recebido não pôde ser decodificado.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
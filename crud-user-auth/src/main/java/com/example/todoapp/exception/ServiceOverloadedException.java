@@ -0,0 +1,12 @@
+package com.example.todoapp.exception;
+
+/**
+ * Lançada quando um recurso limitado (como o pool de hashing de senhas) está saturado
+ * e a requisição deve ser recusada imediatamente com 503.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.todoapp.exception;
+
+/**
+ * Lançada quando o usuário já atingiu o limite de tarefas configurado em todoapp.app.maxTasksPerUser.
+ */
+public class TaskLimitExceededException extends RuntimeException {
+
+    public TaskLimitExceededException(String message) {
+        super(message);
+    }
+}
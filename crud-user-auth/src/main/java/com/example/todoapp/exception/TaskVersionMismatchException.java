@@ -0,0 +1,11 @@
+package com.example.todoapp.exception;
+
+/**
+ * Lançada quando a versão esperada pelo cliente (If-Match ou expectedVersion) não é a versão atual da tarefa.
+ */
+public class TaskVersionMismatchException extends RuntimeException {
+
+    public TaskVersionMismatchException(String message) {
+        super(message);
+    }
+}
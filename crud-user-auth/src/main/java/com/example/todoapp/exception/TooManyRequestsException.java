@@ -0,0 +1,18 @@
+package com.example.todoapp.exception;
+
+/**
+ * Lançada quando um cliente excede o limite de tentativas e deve receber 429.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
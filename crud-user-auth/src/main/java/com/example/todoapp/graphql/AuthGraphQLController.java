@@ -1,14 +1,16 @@
 package com.example.todoapp.graphql;
 
-import com.example.todoapp.domain.enums.ERole;
 import com.example.todoapp.domain.Role;
 import com.example.todoapp.domain.User;
 import com.example.todoapp.payload.response.JwtResponse;
 import com.example.todoapp.payload.response.MessageResponse;
-import com.example.todoapp.repository.RoleRepository;
 import com.example.todoapp.repository.UserRepository;
 import com.example.todoapp.security.jwt.JwtUtils;
+import com.example.todoapp.security.jwt.RevokedTokenStore;
 import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.service.ActivityRollupService;
+import com.example.todoapp.service.RoleRegistry;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
@@ -19,7 +21,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -30,9 +31,11 @@ public class AuthGraphQLController {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
+    private final RevokedTokenStore revokedTokenStore;
+    private final ActivityRollupService activityRollupService;
 
     @MutationMapping
     public JwtResponse login(@Argument String username, @Argument String password) {
@@ -67,36 +70,24 @@ public class AuthGraphQLController {
 
         User user = new User(username, email, encoder.encode(password));
 
-        Set<Role> userRoles = new HashSet<>();
-
-        if (roles == null || roles.isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-            userRoles.add(userRole);
-        } else {
-            roles.forEach(role -> {
-                switch (role) {
-                case "admin":
-                    Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                            .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                    userRoles.add(adminRole);
-                    break;
-                case "mod":
-                    Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                            .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                    userRoles.add(modRole);
-                    break;
-                default:
-                    Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                            .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                    userRoles.add(userRole);
-                }
-            });
-        }
+        Set<Role> userRoles = roleRegistry.resolve(roles);
 
         user.setRoles(userRoles);
         userRepository.save(user);
+        activityRollupService.userCreated();
 
         return new MessageResponse("Usuário registrado com sucesso!");
     }
+
+    @MutationMapping
+    public MessageResponse logout() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getCredentials() instanceof Claims claims)) {
+            return new MessageResponse("Erro: Token JWT ausente ou inválido!");
+        }
+
+        revokedTokenStore.revoke(claims);
+
+        return new MessageResponse("Sessão encerrada com sucesso!");
+    }
 }
@@ -1,18 +1,22 @@
 package com.example.todoapp.graphql;
 
 import com.example.todoapp.domain.Task;
-import com.example.todoapp.domain.enums.TaskPriority;
 import com.example.todoapp.domain.User;
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.dto.CursorPage;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.dto.TaskFilter;
+import com.example.todoapp.payload.response.TaskSummaryResponse;
 import com.example.todoapp.repository.UserRepository;
-import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.security.services.CurrentUserProvider;
 import com.example.todoapp.service.TaskService;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
@@ -23,59 +27,68 @@ public class TaskGraphQLController {
 
     private final TaskService taskService;
     private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
 
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public CursorPage<TaskDTO> getAllTasks(@Argument Integer first, @Argument String after) {
+        return taskService.findAllTasks(after, first);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Task> getAllTasks() {
-        return taskService.findAllTasks();
+    public TaskDTO getTaskById(@Argument Long id) {
+        return TaskDTO.fromEntity(taskService.findTaskById(id));
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public Task getTaskById(@Argument Long id) {
-        return taskService.findTaskById(id);
+    public CursorPage<TaskDTO> getTasksByStatus(@Argument boolean completed, @Argument Integer first, @Argument String after) {
+        return taskService.findTasksByCompleted(completed, after, first);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Task> getTasksByStatus(@Argument boolean completed) {
-        return taskService.findTasksByCompleted(completed);
+    public CursorPage<TaskDTO> getTasksByPriority(@Argument TaskPriority priority, @Argument Integer first, @Argument String after) {
+        return taskService.findTasksByPriority(priority, after, first);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Task> getTasksByPriority(@Argument TaskPriority priority) {
-        return taskService.findTasksByPriority(priority);
+    public CursorPage<TaskDTO> getOverdueTasks(@Argument Integer first, @Argument String after) {
+        return taskService.findOverdueTasks(after, first);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Task> getOverdueTasks() {
-        return taskService.findOverdueTasks();
+    public CursorPage<TaskDTO> getPendingTasks(@Argument Integer first, @Argument String after) {
+        return taskService.findPendingTasksOrderByPriorityAndDueDate(after, first);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Task> getPendingTasks() {
-        return taskService.findPendingTasksOrderByPriorityAndDueDate();
+    public CursorPage<TaskDTO> searchTasks(@Argument String title, @Argument Integer first, @Argument String after) {
+        return taskService.searchTasks(title, after, first);
     }
 
     @QueryMapping
     @PreAuthorize("isAuthenticated()")
-    public List<Task> searchTasks(@Argument String title) {
-        return taskService.searchTasksByTitle(title);
+    public TaskSummaryResponse taskSummary() {
+        return taskService.getTaskSummary();
+    }
+
+    /**
+     * Toda tarefa exposta pertence ao usuário autenticado, então o dono vem do contexto de segurança
+     */
+    @SchemaMapping(typeName = "Task", field = "user")
+    public User user() {
+        return userRepository.findById(currentUserProvider.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
     }
 
     @MutationMapping
     @PreAuthorize("isAuthenticated()")
-    public Task createTask(@Argument TaskInput input) {
+    public TaskDTO createTask(@Argument TaskInput input) {
         Task task = new Task();
         task.setTitle(input.getTitle());
         task.setDescription(input.getDescription());
@@ -83,43 +96,72 @@ public class TaskGraphQLController {
         task.setDueDate(input.getDueDate());
         task.setPriority(input.getPriority());
         
-        return taskService.createTask(task);
+        return TaskDTO.fromEntity(taskService.createTask(task));
     }
 
     @MutationMapping
     @PreAuthorize("isAuthenticated()")
-    public Task updateTask(@Argument Long id, @Argument TaskUpdateInput input) {
-        Task task = taskService.findTaskById(id);
-        
-        if (input.getTitle() != null) {
-            task.setTitle(input.getTitle());
-        }
-        if (input.getDescription() != null) {
-            task.setDescription(input.getDescription());
-        }
-        if (input.getCompleted() != null) {
-            task.setCompleted(input.getCompleted());
-        }
-        if (input.getDueDate() != null) {
-            task.setDueDate(input.getDueDate());
-        }
-        if (input.getPriority() != null) {
-            task.setPriority(input.getPriority());
-        }
-        
-        return taskService.updateTask(id, task);
+    public TaskDTO updateTask(@Argument Long id, @Argument TaskUpdateInput input, @Argument Long expectedVersion) {
+        Task updated = taskService.updateTask(id, expectedVersion, task -> {
+            if (input.getTitle() != null) {
+                task.setTitle(input.getTitle());
+            }
+            if (input.getDescription() != null) {
+                task.setDescription(input.getDescription());
+            }
+            if (input.getCompleted() != null) {
+                task.setCompleted(input.getCompleted());
+            }
+            if (input.getDueDate() != null) {
+                task.setDueDate(input.getDueDate());
+            }
+            if (input.getPriority() != null) {
+                task.setPriority(input.getPriority());
+            }
+        });
+        return TaskDTO.fromEntity(updated);
     }
 
     @MutationMapping
     @PreAuthorize("isAuthenticated()")
-    public Task toggleTaskCompletion(@Argument Long id) {
+    public TaskDTO toggleTaskCompletion(@Argument Long id) {
         return taskService.toggleTaskCompletion(id);
     }
 
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public TaskDTO completeTask(@Argument Long id) {
+        return taskService.completeTask(id);
+    }
+
     @MutationMapping
     @PreAuthorize("isAuthenticated()")
     public Boolean deleteTask(@Argument Long id) {
         taskService.deleteTask(id);
         return true;
     }
+
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public int completeTasks(@Argument List<Long> ids, @Argument TaskFilter filter) {
+        return taskService.setTasksCompleted(ids, filter, true);
+    }
+
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public int reopenTasks(@Argument List<Long> ids, @Argument TaskFilter filter) {
+        return taskService.setTasksCompleted(ids, filter, false);
+    }
+
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public int setTasksPriority(@Argument TaskPriority priority, @Argument List<Long> ids, @Argument TaskFilter filter) {
+        return taskService.setTasksPriority(ids, filter, priority);
+    }
+
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public int deleteTasks(@Argument List<Long> ids, @Argument TaskFilter filter) {
+        return taskService.deleteTasks(ids, filter);
+    }
 }
@@ -1,8 +1,15 @@
 package com.example.todoapp.graphql.exception;
 
+import com.example.todoapp.exception.InvalidBulkSelectionException;
+import com.example.todoapp.exception.InvalidCursorException;
+import com.example.todoapp.exception.ServiceOverloadedException;
+import com.example.todoapp.exception.TaskLimitExceededException;
+import com.example.todoapp.exception.TaskVersionMismatchException;
+import com.example.todoapp.exception.TooManyRequestsException;
 import graphql.GraphQLError;
 import graphql.GraphqlErrorBuilder;
 import graphql.schema.DataFetchingEnvironment;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.graphql.execution.DataFetcherExceptionResolver;
 import org.springframework.graphql.execution.ErrorType;
 import org.springframework.stereotype.Component;
@@ -47,6 +54,98 @@ public class GraphQLExceptionHandler implements DataFetcherExceptionResolver {
                     .extensions(extensions)
                     .build();
                     
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof InvalidCursorException) {
+            extensions.put("code", "INVALID_CURSOR");
+            extensions.put("classification", "ValidationException");
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message(exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .extensions(extensions)
+                    .build();
+                    
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof InvalidBulkSelectionException) {
+            extensions.put("code", "INVALID_SELECTION");
+            extensions.put("classification", "ValidationException");
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message(exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .extensions(extensions)
+                    .build();
+                    
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof TaskVersionMismatchException) {
+            extensions.put("code", "PRECONDITION_FAILED");
+            extensions.put("classification", "ConcurrencyException");
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message(exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .extensions(extensions)
+                    .build();
+                    
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof TaskLimitExceededException) {
+            extensions.put("code", "TASK_LIMIT_EXCEEDED");
+            extensions.put("classification", "ValidationException");
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message(exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .extensions(extensions)
+                    .build();
+                    
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof OptimisticLockingFailureException) {
+            extensions.put("code", "CONFLICT");
+            extensions.put("classification", "ConcurrencyException");
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message("A tarefa foi alterada por outra requisição; recarregue e tente novamente")
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .extensions(extensions)
+                    .build();
+                    
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof ServiceOverloadedException) {
+            extensions.put("code", "SERVICE_UNAVAILABLE");
+            extensions.put("classification", "ServiceOverloadedException");
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message(exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.INTERNAL_ERROR)
+                    .extensions(extensions)
+                    .build();
+                    
+            return Mono.just(Collections.singletonList(error));
+        } else if (exception instanceof TooManyRequestsException tooManyRequests) {
+            extensions.put("code", "TOO_MANY_REQUESTS");
+            extensions.put("classification", "TooManyRequestsException");
+            extensions.put("retryAfterSeconds", tooManyRequests.getRetryAfterSeconds());
+            
+            GraphQLError error = GraphqlErrorBuilder.newError()
+                    .message(exception.getMessage())
+                    .path(environment.getExecutionStepInfo().getPath())
+                    .location(environment.getField().getSourceLocation())
+                    .errorType(ErrorType.BAD_REQUEST)
+                    .extensions(extensions)
+                    .build();
+                    
             return Mono.just(Collections.singletonList(error));
         } else {
             extensions.put("code", "INTERNAL_ERROR");
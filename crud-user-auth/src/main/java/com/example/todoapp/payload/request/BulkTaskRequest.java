@@ -0,0 +1,16 @@
+package com.example.todoapp.payload.request;
+
+import com.example.todoapp.dto.TaskFilter;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Seleção das tarefas de uma operação em massa: informe os ids ou um filtro, não os dois
+ */
+@Data
+public class BulkTaskRequest {
+    private List<Long> ids;
+
+    private TaskFilter filter;
+}
@@ -0,0 +1,12 @@
+package com.example.todoapp.payload.response;
+
+import lombok.Data;
+
+@Data
+public class BulkTaskResponse {
+    private int affected;
+
+    public BulkTaskResponse(int affected) {
+        this.affected = affected;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.todoapp.payload.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TaskImportResponse {
+    private long imported;
+    private long rejected;
+    private List<LineError> errors = new ArrayList<>();
+
+    // true quando houve mais erros do que o limite listado em errors
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.todoapp.payload.response;
+
+import com.example.todoapp.domain.enums.TaskPriority;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class TaskSummaryResponse {
+    private long total;
+    private long pending;
+    private long completed;
+    private long overdue;
+    private List<PriorityCount> byPriority = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriorityCount {
+        private TaskPriority priority;
+        private long pending;
+        private long completed;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.domain.ActivityDaily;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityDailyRepository extends JpaRepository<ActivityDaily, LocalDate> {
+
+    List<ActivityDaily> findByActivityDateBetweenOrderByActivityDate(LocalDate start, LocalDate end);
+
+    /**
+     * Soma os deltas aos totais do dia, criando a linha se ainda não existir
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity_daily"))
+    @Query(value = "MERGE INTO activity_daily a " +
+            "USING (SELECT CAST(:day AS DATE) AS activity_date, CAST(:usersCreated AS BIGINT) AS users_created, " +
+            "              CAST(:tasksCreated AS BIGINT) AS tasks_created, " +
+            "              CAST(:tasksCompleted AS BIGINT) AS tasks_completed) d " +
+            "ON (a.activity_date = d.activity_date) " +
+            "WHEN MATCHED THEN UPDATE SET users_created = a.users_created + d.users_created, " +
+            "     tasks_created = a.tasks_created + d.tasks_created, " +
+            "     tasks_completed = a.tasks_completed + d.tasks_completed " +
+            "WHEN NOT MATCHED THEN INSERT (activity_date, users_created, tasks_created, tasks_completed) " +
+            "VALUES (d.activity_date, d.users_created, d.tasks_created, d.tasks_completed)",
+            nativeQuery = true)
+    int addToDay(@Param("day") LocalDate day, @Param("usersCreated") long usersCreated,
+                 @Param("tasksCreated") long tasksCreated, @Param("tasksCompleted") long tasksCompleted);
+
+    // Backfill: recalcula um intervalo de dias a partir de users e tasks
+
+    @Modifying
+    @Query("DELETE FROM ActivityDaily a WHERE a.activityDate BETWEEN :start AND :end")
+    int deleteByActivityDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * Conclusões são lidas por completed_at, a primeira conclusão de cada tarefa, como as
+     * alterações incrementais as contam
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity_daily"))
+    @Query(value = "INSERT INTO activity_daily (activity_date, users_created, tasks_created, tasks_completed) " +
+            "SELECT activity_date, SUM(users_created), SUM(tasks_created), SUM(tasks_completed) FROM (" +
+            "  SELECT CAST(created_at AS DATE) AS activity_date, 1 AS users_created, 0 AS tasks_created, 0 AS tasks_completed " +
+            "  FROM users WHERE created_at >= :startTime AND created_at < :endTime " +
+            "  UNION ALL " +
+            "  SELECT CAST(created_at AS DATE), 0, 1, 0 " +
+            "  FROM tasks WHERE created_at >= :startTime AND created_at < :endTime " +
+            "  UNION ALL " +
+            "  SELECT CAST(completed_at AS DATE), 0, 0, 1 " +
+            "  FROM tasks WHERE completed_at >= :startTime AND completed_at < :endTime" +
+            ") e GROUP BY activity_date",
+            nativeQuery = true)
+    int insertFromSource(@Param("startTime") LocalDateTime startTime,
+                         @Param("endTime") LocalDateTime endTime);
+}
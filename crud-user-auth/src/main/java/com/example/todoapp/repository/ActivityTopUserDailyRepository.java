@@ -0,0 +1,43 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.domain.ActivityTopUserDaily;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivityTopUserDailyRepository extends JpaRepository<ActivityTopUserDaily, ActivityTopUserDaily.Key> {
+
+    List<ActivityTopUserDaily> findByActivityDateBetween(LocalDate start, LocalDate end);
+
+    /**
+     * Último dia encerrado; todos os dias com atividade até ele já têm seus primeiros gravados
+     */
+    @Query("SELECT MAX(a.activityDate) FROM ActivityTopUserDaily a")
+    Optional<LocalDate> findLastClosedDay();
+
+    @Modifying
+    @Query("DELETE FROM ActivityTopUserDaily a WHERE a.activityDate BETWEEN :start AND :end")
+    int deleteByActivityDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity_top_users_daily"))
+    @Query(value = "INSERT INTO activity_top_users_daily (activity_date, user_id, tasks_created, tasks_completed) " +
+            "SELECT activity_date, user_id, tasks_created, tasks_completed FROM (" +
+            "  SELECT activity_date, user_id, tasks_created, tasks_completed, " +
+            "         ROW_NUMBER() OVER (PARTITION BY activity_date ORDER BY tasks_total DESC, user_id) AS position " +
+            "  FROM activity_user_daily WHERE activity_date BETWEEN :start AND :end" +
+            ") r WHERE position <= :perDay",
+            nativeQuery = true)
+    int insertFromUserDaily(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                            @Param("perDay") int perDay);
+}
@@ -0,0 +1,63 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.domain.ActivityUserDaily;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ActivityUserDailyRepository extends JpaRepository<ActivityUserDaily, ActivityUserDaily.Key> {
+
+    /**
+     * Mais ativos de um dia ainda não encerrado, lidos em ordem pelo índice (activity_date, tasks_total)
+     */
+    @Query("SELECT a FROM ActivityUserDaily a WHERE a.activityDate = :day " +
+           "ORDER BY a.activityDate, a.tasksTotal DESC, a.userId")
+    List<ActivityUserDaily> findTopByActivityDate(@Param("day") LocalDate day, Limit limit);
+
+    @Query("SELECT MIN(a.activityDate) FROM ActivityUserDaily a")
+    Optional<LocalDate> findEarliestActivityDate();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity_user_daily"))
+    @Query(value = "MERGE INTO activity_user_daily a " +
+            "USING (SELECT CAST(:day AS DATE) AS activity_date, CAST(:userId AS BIGINT) AS user_id, " +
+            "              CAST(:tasksCreated AS BIGINT) AS tasks_created, " +
+            "              CAST(:tasksCompleted AS BIGINT) AS tasks_completed) d " +
+            "ON (a.activity_date = d.activity_date AND a.user_id = d.user_id) " +
+            "WHEN MATCHED THEN UPDATE SET tasks_created = a.tasks_created + d.tasks_created, " +
+            "     tasks_completed = a.tasks_completed + d.tasks_completed " +
+            "WHEN NOT MATCHED THEN INSERT (activity_date, user_id, tasks_created, tasks_completed) " +
+            "VALUES (d.activity_date, d.user_id, d.tasks_created, d.tasks_completed)",
+            nativeQuery = true)
+    int addToDay(@Param("day") LocalDate day, @Param("userId") Long userId,
+                 @Param("tasksCreated") long tasksCreated, @Param("tasksCompleted") long tasksCompleted);
+
+    @Modifying
+    @Query("DELETE FROM ActivityUserDaily a WHERE a.activityDate BETWEEN :start AND :end")
+    int deleteByActivityDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity_user_daily"))
+    @Query(value = "INSERT INTO activity_user_daily (activity_date, user_id, tasks_created, tasks_completed) " +
+            "SELECT activity_date, user_id, SUM(tasks_created), SUM(tasks_completed) FROM (" +
+            "  SELECT CAST(created_at AS DATE) AS activity_date, user_id, 1 AS tasks_created, 0 AS tasks_completed " +
+            "  FROM tasks WHERE created_at >= :startTime AND created_at < :endTime " +
+            "  UNION ALL " +
+            "  SELECT CAST(completed_at AS DATE), user_id, 0, 1 " +
+            "  FROM tasks WHERE completed_at >= :startTime AND completed_at < :endTime" +
+            ") e GROUP BY activity_date, user_id",
+            nativeQuery = true)
+    int insertFromSource(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+}
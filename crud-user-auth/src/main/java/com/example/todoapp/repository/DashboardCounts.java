@@ -0,0 +1,24 @@
+package com.example.todoapp.repository;
+
+/**
+ * Totais de usuários e tarefas calculados pela consulta agregada do dashboard
+ */
+public interface DashboardCounts {
+    long getTotalUsers();
+
+    long getActiveUsers();
+
+    long getRegularUsers();
+
+    long getNewUsersThisWeek();
+
+    long getTotalTasks();
+
+    long getCompletedTasks();
+
+    long getOverdueTasks();
+
+    long getTasksCreatedToday();
+
+    long getUsersActiveToday();
+}
@@ -0,0 +1,77 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.domain.TaskCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, TaskCounter.Key> {
+
+    List<TaskCounter> findByUserId(Long userId);
+
+    @Query("SELECT COALESCE(SUM(c.taskCount), 0) FROM TaskCounter c WHERE c.userId = :userId")
+    long sumByUserId(@Param("userId") Long userId);
+
+    /**
+     * Soma delta ao contador, criando-o se ainda não existir; o incremento é feito pelo banco
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_counters"))
+    @Query(value = "MERGE INTO task_counters c " +
+            "USING (SELECT CAST(:userId AS BIGINT) AS user_id, CAST(:completed AS BOOLEAN) AS completed, " +
+            "              CAST(:priority AS VARCHAR) AS priority, CAST(:delta AS BIGINT) AS delta) d " +
+            "ON (c.user_id = d.user_id AND c.completed = d.completed AND c.priority = d.priority) " +
+            "WHEN MATCHED THEN UPDATE SET task_count = c.task_count + d.delta " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, completed, priority, task_count) " +
+            "VALUES (d.user_id, d.completed, d.priority, d.delta)",
+            nativeQuery = true)
+    int addToCount(@Param("userId") Long userId, @Param("completed") boolean completed,
+                   @Param("priority") String priority, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM TaskCounter c WHERE c.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // As consultas que leem tasks declaram também essa tabela (uma dica por tabela; o Hibernate não
+    // separa por vírgula), para o Hibernate gravar antes as tarefas pendentes da sessão
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_counters"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks")})
+    @Query(value = "INSERT INTO task_counters (user_id, completed, priority, task_count) " +
+            "SELECT user_id, completed, priority, COUNT(*) FROM tasks WHERE user_id = :userId " +
+            "GROUP BY user_id, completed, priority",
+            nativeQuery = true)
+    int insertCountsByUserId(@Param("userId") Long userId);
+
+    // Reconciliação: corrige os contadores que divergem da contagem real das tarefas
+
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_counters"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks")})
+    @Query(value = "MERGE INTO task_counters c " +
+            "USING (SELECT user_id, completed, priority, COUNT(*) AS actual FROM tasks " +
+            "       GROUP BY user_id, completed, priority) a " +
+            "ON (c.user_id = a.user_id AND c.completed = a.completed AND c.priority = a.priority) " +
+            "WHEN MATCHED AND c.task_count <> a.actual THEN UPDATE SET task_count = a.actual " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, completed, priority, task_count) " +
+            "VALUES (a.user_id, a.completed, a.priority, a.actual)",
+            nativeQuery = true)
+    int reconcileWithTasks();
+
+    @Modifying
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_counters"),
+                 @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks")})
+    @Query(value = "UPDATE task_counters c SET task_count = 0 WHERE c.task_count <> 0 AND NOT EXISTS " +
+            "(SELECT 1 FROM tasks t WHERE t.user_id = c.user_id AND t.completed = c.completed " +
+            " AND t.priority = c.priority)",
+            nativeQuery = true)
+    int resetCountersWithoutTasks();
+}
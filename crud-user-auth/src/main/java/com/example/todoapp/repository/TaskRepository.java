@@ -2,37 +2,217 @@ package com.example.todoapp.repository;
 
 import com.example.todoapp.domain.Task;
 import com.example.todoapp.domain.enums.TaskPriority;
-import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.dto.TaskText;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    
-    List<Task> findByUser(User user);
-    
-    List<Task> findByCompletedAndUser(boolean completed, User user);
-    
-    List<Task> findByPriorityAndUser(TaskPriority priority, User user);
-    
-    List<Task> findByDueDateBeforeAndUser(LocalDateTime date, User user);
-    
-    List<Task> findByTitleContainingIgnoreCaseAndUser(String title, User user);
-    
-    @Query("SELECT t FROM Task t WHERE t.completed = false AND t.dueDate < CURRENT_TIMESTAMP AND t.user = :user")
-    List<Task> findOverdueTasksByUser(@Param("user") User user);
-    
-    @Query("SELECT t FROM Task t WHERE t.completed = false AND t.user = :user ORDER BY " +
-           "CASE WHEN t.priority = 'HIGH' THEN 0 " +
-           "WHEN t.priority = 'MEDIUM' THEN 1 " +
-           "ELSE 2 END, " +
-           "t.dueDate ASC NULLS LAST")
-    List<Task> findPendingTasksOrderByPriorityAndDueDateByUser(@Param("user") User user);
+
+    // Projeção das listagens: monta o TaskDTO direto na consulta, sem entidades gerenciadas
+    String SELECT_TASK_DTO = "SELECT new com.example.todoapp.dto.TaskDTO(t.id, t.title, t.description, " +
+            "t.completed, t.createdAt, t.updatedAt, t.dueDate, t.priority, t.version) FROM Task t ";
+
+    @Query("SELECT t FROM Task t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<Task> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id = :id AND t.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Operações em massa: um único UPDATE/DELETE restrito ao dono, por ids ou pelos critérios do filtro.
+    // Critério nulo não filtra.
+
+    String BULK_FILTER = "AND (:completed IS NULL OR t.completed = :completed) " +
+            "AND (:priority IS NULL OR t.priority = :priority) " +
+            "AND (:dueBefore IS NULL OR t.dueDate < :dueBefore)";
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completed = :value, t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.user.id = :userId AND t.id IN :ids AND t.completed <> :value")
+    int updateCompletedByIdInAndUserId(@Param("value") boolean value, @Param("now") LocalDateTime now,
+                                       @Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completed = :value, t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.user.id = :userId AND t.completed <> :value " + BULK_FILTER)
+    int updateCompletedByFilterAndUserId(@Param("value") boolean value, @Param("now") LocalDateTime now,
+                                         @Param("userId") Long userId, @Param("completed") Boolean completed,
+                                         @Param("priority") TaskPriority priority,
+                                         @Param("dueBefore") LocalDateTime dueBefore);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completedAt = :now " +
+           "WHERE t.user.id = :userId AND t.id IN :ids AND t.completed = false AND t.completedAt IS NULL")
+    int markFirstCompletionByIdInAndUserId(@Param("now") LocalDateTime now, @Param("ids") Collection<Long> ids,
+                                           @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completedAt = :now " +
+           "WHERE t.user.id = :userId AND t.completed = false AND t.completedAt IS NULL " + BULK_FILTER)
+    int markFirstCompletionByFilterAndUserId(@Param("now") LocalDateTime now, @Param("userId") Long userId,
+                                             @Param("completed") Boolean completed,
+                                             @Param("priority") TaskPriority priority,
+                                             @Param("dueBefore") LocalDateTime dueBefore);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.priority = :value, t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.user.id = :userId AND t.id IN :ids")
+    int updatePriorityByIdInAndUserId(@Param("value") TaskPriority value, @Param("now") LocalDateTime now,
+                                      @Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.priority = :value, t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.user.id = :userId " + BULK_FILTER)
+    int updatePriorityByFilterAndUserId(@Param("value") TaskPriority value, @Param("now") LocalDateTime now,
+                                        @Param("userId") Long userId, @Param("completed") Boolean completed,
+                                        @Param("priority") TaskPriority priority,
+                                        @Param("dueBefore") LocalDateTime dueBefore);
+
+    // Ids que uma exclusão em massa vai apagar, lidos antes do DELETE para avisar o índice de busca.
+    // O FOR UPDATE prende as linhas até o DELETE da mesma transação.
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    List<Long> lockIdsByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId " + BULK_FILTER)
+    List<Long> lockIdsByFilterAndUserId(@Param("userId") Long userId, @Param("completed") Boolean completed,
+                                        @Param("priority") TaskPriority priority,
+                                        @Param("dueBefore") LocalDateTime dueBefore);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    int deleteByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId " + BULK_FILTER)
+    int deleteByFilterAndUserId(@Param("userId") Long userId, @Param("completed") Boolean completed,
+                                @Param("priority") TaskPriority priority,
+                                @Param("dueBefore") LocalDateTime dueBefore);
+
+    // Exclusão das tarefas de uma conta em blocos, sem carregar as entidades (sintaxe do H2).
+    // Como toda escrita nativa, declara a tabela alterada (HINT_NATIVE_SPACES); sem isso o Hibernate
+    // esvaziaria todas as regiões do cache de segundo nível a cada execução
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"))
+    @Query(value = "DELETE FROM tasks WHERE user_id = :userId FETCH FIRST :chunkSize ROWS ONLY", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("chunkSize") int chunkSize);
+
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.user.id = :userId AND t.completed = false " +
+           "AND t.dueDate < CURRENT_TIMESTAMP")
+    long countOverdueByUserId(@Param("userId") Long userId);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TaskDTO> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Alterações atômicas de uma tarefa: o novo estado é calculado pelo banco, sem ler a linha antes
+
+    // Marca a primeira conclusão antes do UPDATE que conclui a tarefa: a quantidade de linhas
+    // marcadas é a de conclusões que contam no relatório de atividades
+    @Modifying
+    @Query("UPDATE Task t SET t.completedAt = :now " +
+           "WHERE t.id = :id AND t.user.id = :userId AND t.completed = false AND t.completedAt IS NULL")
+    int markFirstCompletionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId,
+                                         @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completed = CASE WHEN t.completed = true THEN false ELSE true END, " +
+           "t.updatedAt = :now, t.version = t.version + 1 WHERE t.id = :id AND t.user.id = :userId")
+    int toggleCompletedByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId,
+                                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completed = true, t.updatedAt = :now, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.user.id = :userId AND t.completed = false")
+    int completeByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.id IN :ids AND t.user.id = :userId")
+    List<TaskDTO> findDtosByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    // Leitura forward-only para a exportação, buscando as linhas do cursor em blocos
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId ORDER BY t.id")
+    Stream<TaskDTO> streamByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.todoapp.dto.TaskText(t.id, t.user.id, t.title, t.description) " +
+           "FROM Task t")
+    Stream<TaskText> streamAllTaskTexts();
+
+    // Listagens paginadas por keyset: cada página começa depois das chaves do último item da anterior
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.id > :afterId ORDER BY t.id")
+    List<TaskDTO> findPageByUser(@Param("userId") Long userId, @Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.completed = :completed " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<TaskDTO> findPageByCompletedAndUser(@Param("completed") boolean completed, @Param("userId") Long userId,
+                                             @Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.priority = :priority " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<TaskDTO> findPageByPriorityAndUser(@Param("priority") TaskPriority priority, @Param("userId") Long userId,
+                                            @Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND LOWER(t.title) LIKE :pattern ESCAPE '\\' " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<TaskDTO> findPageByTitleLikeAndUser(@Param("pattern") String pattern, @Param("userId") Long userId,
+                                             @Param("afterId") long afterId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.completed = false " +
+           "AND t.dueDate < CURRENT_TIMESTAMP ORDER BY t.dueDate, t.id")
+    List<TaskDTO> findOverdueTasksByUser(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.completed = false " +
+           "AND t.dueDate < CURRENT_TIMESTAMP " +
+           "AND (t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId)) " +
+           "ORDER BY t.dueDate, t.id")
+    List<TaskDTO> findOverdueTasksByUserAfter(@Param("userId") Long userId, @Param("afterDue") LocalDateTime afterDue,
+                                              @Param("afterId") long afterId, Limit limit);
+
+    // O ORDER BY começa pelas colunas fixadas no WHERE para coincidir com o início de
+    // idx_tasks_user_completed_rank_due; assim o H2 lê a página na ordem do índice, sem ordenar
+    String PENDING_ORDER = "ORDER BY t.user.id, t.completed, t.priorityRank, t.dueDate ASC NULLS LAST, t.id";
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.completed = false " +
+           PENDING_ORDER)
+    List<TaskDTO> findPendingTasksOrderByPriorityAndDueDateByUser(@Param("userId") Long userId, Limit limit);
+
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.completed = false " +
+           "AND (t.priorityRank > :afterRank OR (t.priorityRank = :afterRank " +
+           "AND (t.dueDate IS NULL OR t.dueDate > :afterDue OR (t.dueDate = :afterDue AND t.id > :afterId)))) " +
+           PENDING_ORDER)
+    List<TaskDTO> findPendingTasksByUserAfterDated(@Param("userId") Long userId, @Param("afterRank") int afterRank,
+                                                   @Param("afterDue") LocalDateTime afterDue,
+                                                   @Param("afterId") long afterId, Limit limit);
+
+    // Tarefas sem vencimento ficam no fim de cada faixa de prioridade (NULLS LAST)
+    @Query(SELECT_TASK_DTO + "WHERE t.user.id = :userId AND t.completed = false " +
+           "AND (t.priorityRank > :afterRank OR (t.priorityRank = :afterRank " +
+           "AND t.dueDate IS NULL AND t.id > :afterId)) " +
+           PENDING_ORDER)
+    List<TaskDTO> findPendingTasksByUserAfterUndated(@Param("userId") Long userId, @Param("afterRank") int afterRank,
+                                                     @Param("afterId") long afterId, Limit limit);
     
     List<Task> findByCompleted(boolean completed);
     
@@ -43,10 +223,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE t.completed = false AND t.dueDate < CURRENT_TIMESTAMP")
     List<Task> findOverdueTasks();
     
-    @Query("SELECT t FROM Task t WHERE t.completed = false ORDER BY " +
-           "CASE WHEN t.priority = 'HIGH' THEN 0 " +
-           "WHEN t.priority = 'MEDIUM' THEN 1 " +
-           "ELSE 2 END, " +
-           "t.dueDate ASC NULLS LAST")
+    @Query("SELECT t FROM Task t WHERE t.completed = false " +
+           "ORDER BY t.priorityRank, t.dueDate ASC NULLS LAST, t.id")
     List<Task> findPendingTasksOrderByPriorityAndDueDate();
 }
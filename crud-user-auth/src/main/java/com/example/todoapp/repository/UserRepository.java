@@ -2,18 +2,30 @@ package com.example.todoapp.repository;
 
 import com.example.todoapp.domain.User;
 import com.example.todoapp.domain.enums.ERole;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Autenticação sempre precisa das roles: busca junto, numa só consulta (resultado no cache de consultas)
+    @EntityGraph(attributePaths = "roles")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsername(String username);
     
     Boolean existsByUsername(String username);
@@ -32,4 +44,51 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Long countUsers();
 
     Page<User> findByRoles_Name(ERole role, Pageable page);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    @Query(value = "DELETE FROM user_roles WHERE user_id = :userId", nativeQuery = true)
+    int deleteRoleLinksByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteByIdDirectly(@Param("id") Long id);
+
+    /**
+     * Todos os totais do dashboard numa única leitura de users e de tasks
+     */
+    @Query(value = "SELECT u.totalUsers, u.activeUsers, u.regularUsers, u.newUsersThisWeek, " +
+            "t.totalTasks, t.completedTasks, t.overdueTasks, t.tasksCreatedToday, t.usersActiveToday " +
+            "FROM (SELECT COUNT(*) AS totalUsers, " +
+            "             COUNT(CASE WHEN us.active THEN 1 END) AS activeUsers, " +
+            "             COUNT(CASE WHEN EXISTS (SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+            "                        WHERE ur.user_id = us.id AND r.name = 'ROLE_USER') THEN 1 END) AS regularUsers, " +
+            "             COUNT(CASE WHEN us.created_at >= :weekStart THEN 1 END) AS newUsersThisWeek " +
+            "      FROM users us) u " +
+            "CROSS JOIN (SELECT COUNT(*) AS totalTasks, " +
+            "             COUNT(CASE WHEN ts.completed THEN 1 END) AS completedTasks, " +
+            "             COUNT(CASE WHEN NOT ts.completed AND ts.due_date < :now THEN 1 END) AS overdueTasks, " +
+            "             COUNT(CASE WHEN ts.created_at >= :todayStart THEN 1 END) AS tasksCreatedToday, " +
+            "             COUNT(DISTINCT CASE WHEN ts.created_at >= :todayStart OR ts.updated_at >= :todayStart " +
+            "                   THEN ts.user_id END) AS usersActiveToday " +
+            "      FROM tasks ts) t",
+            nativeQuery = true)
+    DashboardCounts aggregateDashboardCounts(@Param("now") LocalDateTime now,
+                                             @Param("todayStart") LocalDateTime todayStart,
+                                             @Param("weekStart") LocalDateTime weekStart);
+
+    @Query("SELECT MIN(u.createdAt) FROM User u")
+    Optional<LocalDateTime> findEarliestCreatedAt();
+
+    // Serializa as criações de tarefas do usuário: o FOR UPDATE prende a linha até o fim da transação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
@@ -1,9 +1,15 @@
 package com.example.todoapp.security;
 
+import com.example.todoapp.security.crypto.BoundedPasswordEncoder;
 import com.example.todoapp.security.jwt.AuthEntryPointJwt;
 import com.example.todoapp.security.jwt.AuthTokenFilter;
 import com.example.todoapp.security.services.UserDetailsServiceImpl;
+import com.example.todoapp.security.throttle.AuthenticationThrottle;
+import com.example.todoapp.security.throttle.ThrottlingAuthenticationManager;
+import jakarta.servlet.DispatcherType;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,6 +34,18 @@ public class WebSecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${todoapp.app.bcryptStrength}")
+    private int bcryptStrength;
+
+    @Value("${todoapp.app.passwordHashThreads}")
+    private int passwordHashThreads;
+
+    @Value("${todoapp.app.passwordHashQueueCapacity}")
+    private int passwordHashQueueCapacity;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -39,18 +57,22 @@ public class WebSecurityConfig {
         
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         
         return authProvider;
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
-        return authConfig.getAuthenticationManager();
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig,
+                                                       AuthenticationThrottle authenticationThrottle) throws Exception {
+        return new ThrottlingAuthenticationManager(authConfig.getAuthenticationManager(), authenticationThrottle);
     }
 
-    @Bean
+    @Bean(destroyMethod = "shutdown")
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = passwordHashThreads > 0 ? passwordHashThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength),
+                threads, passwordHashQueueCapacity, meterRegistry);
     }
 
     @Bean
@@ -59,7 +81,9 @@ public class WebSecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/api/auth/**").permitAll()
+                // O dispatch ASYNC só conclui respostas em streaming já autorizadas no dispatch original
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/api/auth/**").permitAll()
                     .requestMatchers("/graphql").permitAll()
                     .requestMatchers("/graphiql/**").permitAll()
                     .requestMatchers("/h2-console/**").permitAll()
@@ -67,6 +91,8 @@ public class WebSecurityConfig {
                     .requestMatchers("/v3/api-docs/**").permitAll()
                     .requestMatchers("/swagger-resources/**").permitAll()
                     .requestMatchers("/webjars/**").permitAll()
+                    .requestMatchers("/actuator/health").permitAll()
+                    .requestMatchers("/actuator/**").hasRole("ADMIN")
                     .requestMatchers("/api/admin/**").hasRole("ADMIN")
                     .requestMatchers("/api/moderator/**").hasAnyRole("MODERATOR", "ADMIN")
                     .requestMatchers("/api/users/**").hasAnyRole("USER", "MODERATOR", "ADMIN")
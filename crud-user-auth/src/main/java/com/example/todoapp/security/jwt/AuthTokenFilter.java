@@ -1,6 +1,9 @@
 package com.example.todoapp.security.jwt;
 
+import com.example.todoapp.security.services.TokenVersionRegistry;
+import com.example.todoapp.security.services.UserDetailsImpl;
 import com.example.todoapp.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,9 +11,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,11 +22,20 @@ import java.io.IOException;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
-    private JwtUtils jwtUtils;
+    private JwtTokenVerifier jwtTokenVerifier;
 
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private RevokedTokenStore revokedTokenStore;
+
+    @Value("${todoapp.app.jwtStatelessPrincipal}")
+    private boolean statelessPrincipal;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -31,14 +43,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Claims claims = jwt != null ? jwtTokenVerifier.verify(jwt) : null;
+            if (claims != null && revokedTokenStore.isRevoked(claims.getId())) {
+                logger.warn("Token JWT revogado utilizado pelo usuário {}", claims.getSubject());
+                claims = null;
+            }
+            UserDetailsImpl userDetails = claims != null ? resolvePrincipal(claims) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
-                                null,
+                                claims,
                                 userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -51,6 +66,28 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetailsImpl resolvePrincipal(Claims claims) {
+        int tokenVersion = JwtUtils.getTokenVersion(claims);
+
+        if (statelessPrincipal) {
+            UserDetailsImpl userDetails = UserDetailsImpl.fromClaims(claims);
+            if (userDetails != null) {
+                if (!tokenVersionRegistry.isCurrent(userDetails.getId(), tokenVersion)) {
+                    logger.warn("Token JWT de versão antiga para o usuário {}", userDetails.getUsername());
+                    return null;
+                }
+                return userDetails;
+            }
+        }
+
+        UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+        if (userDetails.getTokenVersion() != tokenVersion) {
+            logger.warn("Token JWT de versão antiga para o usuário {}", userDetails.getUsername());
+            return null;
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
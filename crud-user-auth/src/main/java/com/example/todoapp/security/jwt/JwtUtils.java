@@ -1,53 +1,93 @@
 package com.example.todoapp.security.jwt;
 
+import com.example.todoapp.security.services.UserDetailsImpl;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${todoapp.app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${todoapp.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
 
-        return Jwts.builder()
-                .setSubject((userPrincipal.getUsername()))
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject((userPrincipal.getUsername()));
+
+        if (userPrincipal instanceof UserDetailsImpl userDetails) {
+            builder.claim(CLAIM_USER_ID, userDetails.getId())
+                    .claim(CLAIM_EMAIL, userDetails.getEmail())
+                    .claim(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                            .map(GrantedAuthority::getAuthority)
+                            .collect(Collectors.toList()))
+                    .claim(CLAIM_TOKEN_VERSION, userDetails.getTokenVersion());
+        }
+
+        return builder
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public static int getTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return jwtParser.parseClaimsJws(token).getBody().getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return getVerifiedClaims(authToken) != null;
+    }
+
+    /**
+     * Verifica a assinatura e a validade do token numa única leitura
+     * @param authToken token JWT recebido
+     * @return claims do token, ou null se o token for inválido
+     */
+    public Claims getVerifiedClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException e) {
+            return jwtParser.parseClaimsJws(authToken).getBody();
+        } catch (io.jsonwebtoken.security.SecurityException e) {
             logger.error("Token JWT inválido: {}", e.getMessage());
         } catch (MalformedJwtException e) {
             logger.error("Token JWT malformado: {}", e.getMessage());
@@ -59,6 +99,6 @@ public class JwtUtils {
             logger.error("JWT claims string está vazia: {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 }
@@ -0,0 +1,145 @@
+package com.example.todoapp.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de tokens revogados (logout) antes da expiração. A consulta feita a cada requisição
+ * passa primeiro por um filtro de Bloom e só consulta o conjunto exato quando o filtro indica
+ * uma possível revogação. Cada entrada vive até o token expirar e a lista é gravada em um
+ * arquivo local para sobreviver a reinícios.
+ */
+@Component
+public class RevokedTokenStore {
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenStore.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Path file;
+    private final int expectedEntries;
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+
+    public RevokedTokenStore(@Value("${todoapp.app.revokedTokensFile}") String file,
+                             @Value("${todoapp.app.revokedTokensExpectedSize}") int expectedEntries) {
+        this.file = Paths.get(file);
+        this.expectedEntries = expectedEntries;
+        this.bloomFilter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int separator = line.indexOf(';');
+                if (separator <= 0) {
+                    continue;
+                }
+                long expiresAt = Long.parseLong(line.substring(separator + 1).trim());
+                if (expiresAt > now) {
+                    revokedUntil.put(line.substring(0, separator), expiresAt);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.error("Não foi possível carregar a lista de tokens revogados: {}", e.getMessage());
+        }
+        rebuildBloomFilter();
+        logger.info("{} tokens revogados carregados de {}", revokedUntil.size(), file);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null
+                && bloomFilter.mightContain(tokenId)
+                && revokedUntil.containsKey(tokenId);
+    }
+
+    /**
+     * Revoga o token até a sua expiração
+     * @param claims claims verificadas do token
+     */
+    public synchronized void revoke(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId == null || claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Token sem identificador não pode ser revogado");
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        if (revokedUntil.putIfAbsent(tokenId, expiresAt) != null) {
+            return;
+        }
+        bloomFilter.add(tokenId);
+        append(tokenId, expiresAt);
+    }
+
+    /**
+     * Remove os tokens já expirados, reconstrói o filtro de Bloom e compacta o arquivo
+     */
+    @Scheduled(fixedDelayString = "${todoapp.app.revokedTokensPurgeMs}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (!revokedUntil.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        rebuildBloomFilter();
+        rewriteFile();
+    }
+
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revokedUntil.size() * 2), FALSE_POSITIVE_RATE);
+        revokedUntil.keySet().forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+    }
+
+    private void append(String tokenId, long expiresAt) {
+        try {
+            createParentDirectories();
+            Files.writeString(file, tokenId + ";" + expiresAt + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.error("Não foi possível gravar o token revogado em {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void rewriteFile() {
+        try {
+            createParentDirectories();
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entry : List.copyOf(revokedUntil.entrySet())) {
+                    writer.write(entry.getKey() + ";" + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível compactar a lista de tokens revogados", e);
+        }
+    }
+
+    private void createParentDirectories() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+    }
+}
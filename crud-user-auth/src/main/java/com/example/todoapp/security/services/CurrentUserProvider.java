@@ -0,0 +1,46 @@
+package com.example.todoapp.security.services;
+
+import com.example.todoapp.domain.User;
+import com.example.todoapp.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Acesso ao usuário autenticado da requisição corrente. Os dados vêm do principal guardado
+ * no SecurityContext (preenchido pelo AuthTokenFilter), sem nenhuma consulta ao banco;
+ * quando uma entidade é necessária, apenas uma referência JPA é devolvida.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserProvider {
+
+    private final UserRepository userRepository;
+
+    public UserDetailsImpl getPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl userDetails)) {
+            throw new AuthenticationCredentialsNotFoundException("Usuário não autenticado");
+        }
+        return userDetails;
+    }
+
+    public Long getId() {
+        return getPrincipal().getId();
+    }
+
+    public String getUsername() {
+        return getPrincipal().getUsername();
+    }
+
+    /**
+     * Retorna uma referência (proxy não inicializado) para o usuário autenticado,
+     * suficiente para associar entidades ou filtrar consultas sem carregar o usuário
+     * @return referência JPA do usuário corrente
+     */
+    public User getReference() {
+        return userRepository.getReferenceById(getId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.todoapp.security.services;
+
+import com.example.todoapp.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Mantém em memória a versão de token vigente de cada usuário, para que o modo
+ * stateless do AuthTokenFilter consiga rejeitar tokens antigos sem consultar o banco
+ * a cada requisição. A versão é carregada do banco apenas na primeira consulta de
+ * cada usuário e descartada quando o UserService altera a conta.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final LoadingCache<Long, Optional<Integer>> versions;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${todoapp.app.tokenVersionCacheMaxSize}") long maxSize) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build(userRepository::findTokenVersionById);
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return versions.get(userId)
+                .map(version -> version == tokenVersion)
+                .orElse(false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        versions.invalidate(event.userId());
+    }
+}
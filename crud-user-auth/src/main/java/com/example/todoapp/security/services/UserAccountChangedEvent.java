@@ -0,0 +1,16 @@
+package com.example.todoapp.security.services;
+
+/**
+ * Publicado pelo UserService quando dados que compõem o principal de um usuário mudam
+ * (username, email, roles, status, senha) ou quando o usuário é removido.
+ *
+ * @param userId id do usuário alterado
+ * @param username username atual (ou o último conhecido, em caso de remoção)
+ * @param previousUsername username anterior, quando houve troca; caso contrário null
+ */
+public record UserAccountChangedEvent(Long userId, String username, String previousUsername) {
+
+    public UserAccountChangedEvent(Long userId, String username) {
+        this(userId, username, null);
+    }
+}
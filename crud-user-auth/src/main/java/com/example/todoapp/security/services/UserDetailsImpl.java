@@ -1,7 +1,9 @@
 package com.example.todoapp.security.services;
 
 import com.example.todoapp.domain.User;
+import com.example.todoapp.security.jwt.JwtUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -23,13 +25,21 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    private int tokenVersion;
+
     public UserDetailsImpl(Long id, String username, String email, String password,
                            Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, email, password, authorities, 0);
+    }
+
+    public UserDetailsImpl(Long id, String username, String email, String password,
+                           Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.tokenVersion = tokenVersion;
     }
 
     public static UserDetailsImpl build(User user) {
@@ -42,7 +52,33 @@ public class UserDetailsImpl implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                user.getTokenVersion());
+    }
+
+    /**
+     * Monta o principal diretamente das claims de um token já verificado, sem consultar o banco
+     * @param claims claims geradas por {@link JwtUtils#generateJwtToken}
+     * @return principal sem senha, ou null se o token não trouxer as claims do usuário
+     */
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        Long id = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        if (id == null || roles == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                id,
+                claims.getSubject(),
+                claims.get(JwtUtils.CLAIM_EMAIL, String.class),
+                null,
+                authorities,
+                JwtUtils.getTokenVersion(claims));
     }
 
     @Override
@@ -58,6 +94,10 @@ public class UserDetailsImpl implements UserDetails {
         return email;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -2,21 +2,84 @@ package com.example.todoapp.security.services;
 
 import com.example.todoapp.domain.User;
 import com.example.todoapp.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
-    @Autowired
-    UserRepository userRepository;
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Cache<String, UserDetailsImpl> userDetailsCache;
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${todoapp.app.userDetailsCacheTtlSeconds}") long ttlSeconds,
+                                  @Value("${todoapp.app.userDetailsCacheMaxSize}") long maxSize) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.userDetailsCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userDetailsCache, "userDetails");
+    }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromDatabase);
+    }
+
+    /**
+     * Chamado pelo DaoAuthenticationProvider após um login bem-sucedido cujo hash usa um custo
+     * menor que o configurado, regravando a senha com o custo atual
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetailsImpl userDetails = (UserDetailsImpl) user;
+        userRepository.updatePassword(userDetails.getId(), newPassword);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userDetails.getId(), userDetails.getUsername()));
+
+        return new UserDetailsImpl(
+                userDetails.getId(),
+                userDetails.getUsername(),
+                userDetails.getEmail(),
+                newPassword,
+                userDetails.getAuthorities(),
+                userDetails.getTokenVersion());
+    }
+
+    /**
+     * Remove do cache as entradas do usuário alterado assim que a transação do UserService é confirmada
+     * @param event evento publicado pelo UserService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        userDetailsCache.invalidate(event.username());
+        if (event.previousUsername() != null) {
+            userDetailsCache.invalidate(event.previousUsername());
+        }
+    }
+
+    private UserDetailsImpl loadFromDatabase(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o nome: " + username));
 
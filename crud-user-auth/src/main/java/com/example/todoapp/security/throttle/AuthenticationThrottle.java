@@ -0,0 +1,91 @@
+package com.example.todoapp.security.throttle;
+
+import com.example.todoapp.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as tentativas de autenticação por username e por IP de origem. Os baldes ficam em
+ * caches com tamanho máximo e expiração por inatividade, então a memória usada é limitada
+ * mesmo sob ataques com muitos usernames ou IPs distintos.
+ */
+@Component
+public class AuthenticationThrottle {
+
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+
+    public AuthenticationThrottle(MeterRegistry meterRegistry,
+                                  @Value("${todoapp.app.loginThrottleUserBurst}") int userBurst,
+                                  @Value("${todoapp.app.loginThrottleUserPerMinute}") int userPerMinute,
+                                  @Value("${todoapp.app.loginThrottleIpBurst}") int ipBurst,
+                                  @Value("${todoapp.app.loginThrottleIpPerMinute}") int ipPerMinute,
+                                  @Value("${todoapp.app.loginThrottleMaxKeys}") long maxKeys,
+                                  @Value("${todoapp.app.loginThrottleIdleMinutes}") long idleMinutes) {
+        Duration idle = Duration.ofMinutes(idleMinutes);
+        this.usernameLimit = new Limit(userBurst, userPerMinute, maxKeys, idle);
+        this.ipLimit = new Limit(ipBurst, ipPerMinute, maxKeys, idle);
+        this.usernameRejections = Counter.builder("auth.throttle.rejected").tag("key", "username").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.throttle.rejected").tag("key", "ip").register(meterRegistry);
+    }
+
+    /**
+     * Consome uma tentativa para o IP e para o username informados
+     * @throws TooManyRequestsException se algum dos limites foi excedido
+     */
+    public void acquire(String username, String clientIp) {
+        long now = System.nanoTime();
+
+        if (clientIp != null) {
+            long waitNanos = ipLimit.tryAcquire(clientIp, now);
+            if (waitNanos > 0) {
+                ipRejections.increment();
+                throw rejection(waitNanos);
+            }
+        }
+
+        if (username != null) {
+            long waitNanos = usernameLimit.tryAcquire(username.toLowerCase(Locale.ROOT), now);
+            if (waitNanos > 0) {
+                usernameRejections.increment();
+                throw rejection(waitNanos);
+            }
+        }
+    }
+
+    private static TooManyRequestsException rejection(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        return new TooManyRequestsException(
+                "Muitas tentativas de login. Tente novamente em " + retryAfterSeconds + " segundos", retryAfterSeconds);
+    }
+
+    private static final class Limit {
+        private final long emissionIntervalNanos;
+        private final long burstToleranceNanos;
+        private final Cache<String, RateBucket> buckets;
+
+        Limit(int burst, int perMinute, long maxKeys, Duration idle) {
+            this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+            this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idle)
+                    .build();
+        }
+
+        long tryAcquire(String key, long now) {
+            return buckets.get(key, k -> new RateBucket(now))
+                    .tryAcquire(now, emissionIntervalNanos, burstToleranceNanos);
+        }
+    }
+}
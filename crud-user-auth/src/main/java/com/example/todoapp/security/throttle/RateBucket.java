@@ -0,0 +1,37 @@
+package com.example.todoapp.security.throttle;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem lock, implementado como GCRA: o estado inteiro do balde é o instante
+ * teórico de chegada (TAT) da próxima permissão, atualizado com CAS.
+ */
+final class RateBucket {
+
+    private final AtomicLong theoreticalArrivalNanos;
+
+    RateBucket(long nowNanos) {
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Tenta consumir uma permissão
+     * @param nowNanos instante atual (System.nanoTime)
+     * @param emissionIntervalNanos intervalo de reposição de uma permissão
+     * @param burstToleranceNanos folga equivalente a (capacidade - 1) permissões
+     * @return 0 se a permissão foi concedida, senão o tempo de espera em nanossegundos
+     */
+    long tryAcquire(long nowNanos, long emissionIntervalNanos, long burstToleranceNanos) {
+        while (true) {
+            long arrival = theoreticalArrivalNanos.get();
+            long allowAt = arrival - burstToleranceNanos;
+            if (nowNanos - allowAt < 0) {
+                return allowAt - nowNanos;
+            }
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            if (theoreticalArrivalNanos.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.todoapp.security.throttle;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * AuthenticationManager usado pelos endpoints de login (REST e GraphQL). Aplica o
+ * {@link AuthenticationThrottle} antes de delegar, de modo que tentativas bloqueadas
+ * nunca chegam à verificação do BCrypt.
+ */
+public class ThrottlingAuthenticationManager implements AuthenticationManager {
+
+    private final AuthenticationManager delegate;
+    private final AuthenticationThrottle throttle;
+
+    public ThrottlingAuthenticationManager(AuthenticationManager delegate, AuthenticationThrottle throttle) {
+        this.delegate = delegate;
+        this.throttle = throttle;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        throttle.acquire(authentication.getName(), currentClientIp());
+        return delegate.authenticate(authentication);
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.ActivityDaily;
+import com.example.todoapp.domain.ActivityTopUserDaily;
+import com.example.todoapp.domain.ActivityUserDaily;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.ActiveUserCount;
+import com.example.todoapp.repository.ActivityDailyRepository;
+import com.example.todoapp.repository.ActivityTopUserDailyRepository;
+import com.example.todoapp.repository.ActivityUserDailyRepository;
+import com.example.todoapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Totais diários de atividade (geral e por usuário). As alterações de tarefas e os cadastros
+ * somam seus deltas no dia corrente; o backfill recalcula um intervalo a partir das tabelas de
+ * origem. O relatório de um período lê apenas as linhas de totais dos dias pedidos.
+ * <p>
+ * Os mais ativos do período somam os primeiros de cada dia, no máximo topUsersPerDay por dia:
+ * activity_top_users_daily para os dias encerrados e, para os ainda abertos (normalmente só hoje),
+ * os primeiros lidos pelo índice de activity_user_daily. O custo depende do número de dias, não do
+ * número de usuários ativos. O resultado é aproximado: quem não ficou entre os primeiros de nenhum
+ * dia não aparece, e cada usuário soma só os dias em que ficou entre eles.
+ */
+@Service
+public class ActivityRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(ActivityRollupService.class);
+
+    private final ActivityDailyRepository activityDailyRepository;
+    private final ActivityUserDailyRepository activityUserDailyRepository;
+    private final ActivityTopUserDailyRepository activityTopUserDailyRepository;
+    private final UserRepository userRepository;
+    private final int topUsersPerDay;
+
+    public ActivityRollupService(ActivityDailyRepository activityDailyRepository,
+                                 ActivityUserDailyRepository activityUserDailyRepository,
+                                 ActivityTopUserDailyRepository activityTopUserDailyRepository,
+                                 UserRepository userRepository,
+                                 @Value("${todoapp.app.activityTopUsersPerDay}") int topUsersPerDay) {
+        this.activityDailyRepository = activityDailyRepository;
+        this.activityUserDailyRepository = activityUserDailyRepository;
+        this.activityTopUserDailyRepository = activityTopUserDailyRepository;
+        this.userRepository = userRepository;
+        this.topUsersPerDay = topUsersPerDay;
+    }
+
+    @Transactional
+    public void userCreated() {
+        activityDailyRepository.addToDay(LocalDate.now(), 1, 0, 0);
+    }
+
+    public void tasksCreated(Long userId, long count) {
+        add(userId, count, 0);
+    }
+
+    public void tasksCompleted(Long userId, long count) {
+        add(userId, 0, count);
+    }
+
+    private void add(Long userId, long created, long completed) {
+        if (created == 0 && completed == 0) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        activityDailyRepository.addToDay(today, 0, created, completed);
+        activityUserDailyRepository.addToDay(today, userId, created, completed);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ActivityDaily> dailyTotals(LocalDate start, LocalDate end) {
+        return activityDailyRepository.findByActivityDateBetweenOrderByActivityDate(start, end);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ActiveUserCount> mostActiveUsers(LocalDate start, LocalDate end, int limit) {
+        Map<Long, long[]> totals = new HashMap<>();
+        LocalDate firstOpenDay = start;
+        Optional<LocalDate> lastClosedDay = activityTopUserDailyRepository.findLastClosedDay();
+        if (lastClosedDay.isPresent() && !lastClosedDay.get().isBefore(start)) {
+            LocalDate closedEnd = lastClosedDay.get().isBefore(end) ? lastClosedDay.get() : end;
+            for (ActivityTopUserDaily top : activityTopUserDailyRepository.findByActivityDateBetween(start, closedEnd)) {
+                addTo(totals, top.getUserId(), top.getTasksCreated(), top.getTasksCompleted());
+            }
+            firstOpenDay = lastClosedDay.get().plusDays(1);
+        }
+        for (LocalDate day = firstOpenDay; !day.isAfter(end); day = day.plusDays(1)) {
+            for (ActivityUserDaily top : activityUserDailyRepository.findTopByActivityDate(day, Limit.of(topUsersPerDay))) {
+                addTo(totals, top.getUserId(), top.getTasksCreated(), top.getTasksCompleted());
+            }
+        }
+
+        List<Map.Entry<Long, long[]>> ranked = totals.entrySet().stream()
+                .sorted((a, b) -> {
+                    int byTotal = Long.compare(b.getValue()[0] + b.getValue()[1], a.getValue()[0] + a.getValue()[1]);
+                    return byTotal != 0 ? byTotal : Long.compare(a.getKey(), b.getKey());
+                })
+                .limit(limit)
+                .toList();
+        Map<Long, String> usernames = userRepository.findAllById(ranked.stream().map(Map.Entry::getKey).toList())
+                .stream().collect(Collectors.toMap(User::getId, User::getUsername));
+        List<ActiveUserCount> result = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, long[]> entry : ranked) {
+            result.add(new ActiveUserCount(usernames.get(entry.getKey()), entry.getValue()[0], entry.getValue()[1]));
+        }
+        return result;
+    }
+
+    private static void addTo(Map<Long, long[]> totals, Long userId, long created, long completed) {
+        long[] total = totals.computeIfAbsent(userId, id -> new long[2]);
+        total[0] += created;
+        total[1] += completed;
+    }
+
+    /**
+     * Grava os primeiros dos dias já encerrados que ainda não foram gravados. Até lá, o relatório
+     * lê esses dias direto de activity_user_daily, então um atraso aqui não muda o resultado.
+     */
+    @Scheduled(fixedDelayString = "${todoapp.app.activityTopUsersCloseMs}",
+               initialDelayString = "${todoapp.app.activityTopUsersCloseMs}")
+    @Transactional
+    public void closeDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Optional<LocalDate> first = activityTopUserDailyRepository.findLastClosedDay()
+                .map(day -> day.plusDays(1))
+                .or(activityUserDailyRepository::findEarliestActivityDate);
+        if (first.isPresent() && !first.get().isAfter(yesterday)) {
+            refreshTopUsers(first.get(), yesterday);
+        }
+    }
+
+    private void refreshTopUsers(LocalDate start, LocalDate end) {
+        activityTopUserDailyRepository.deleteByActivityDateBetween(start, end);
+        activityTopUserDailyRepository.insertFromUserDaily(start, end, topUsersPerDay);
+    }
+
+    /**
+     * Recalcula os totais dos dias do intervalo a partir de users e tasks
+     * @param start primeiro dia (inclusive)
+     * @param end último dia (inclusive)
+     * @return quantidade de dias com atividade
+     */
+    @Transactional
+    public int backfill(LocalDate start, LocalDate end) {
+        long begin = System.nanoTime();
+        activityDailyRepository.deleteByActivityDateBetween(start, end);
+        activityUserDailyRepository.deleteByActivityDateBetween(start, end);
+
+        LocalDateTime startTime = start.atStartOfDay();
+        LocalDateTime endTime = end.plusDays(1).atStartOfDay();
+        int days = activityDailyRepository.insertFromSource(startTime, endTime);
+        activityUserDailyRepository.insertFromSource(startTime, endTime);
+
+        // Dias já encerrados do intervalo são regravados; os demais, até ontem, são encerrados agora
+        Optional<LocalDate> lastClosedDay = activityTopUserDailyRepository.findLastClosedDay();
+        if (lastClosedDay.isPresent() && !lastClosedDay.get().isBefore(start)) {
+            refreshTopUsers(start, lastClosedDay.get().isBefore(end) ? lastClosedDay.get() : end);
+        }
+        closeDays();
+
+        logger.info("Backfill da atividade diária de {} a {}: {} dias em {} ms",
+                start, end, days, (System.nanoTime() - begin) / 1_000_000);
+        return days;
+    }
+
+    /**
+     * Na primeira inicialização com as tabelas de totais vazias, calcula todo o histórico
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (activityDailyRepository.count() > 0) {
+            return;
+        }
+        userRepository.findEarliestCreatedAt()
+                .ifPresent(earliest -> backfill(earliest.toLocalDate(), LocalDate.now()));
+    }
+}
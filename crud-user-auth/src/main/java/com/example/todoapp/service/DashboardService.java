@@ -0,0 +1,55 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.DashboardSnapshot;
+import com.example.todoapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Mantém os totais dos dashboards num snapshot recalculado periodicamente, para que as
+ * consultas dos painéis nunca percorram as tabelas de usuários e tarefas na requisição.
+ */
+@Service
+public class DashboardService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    private final UserRepository userRepository;
+
+    private volatile DashboardSnapshot snapshot;
+
+    public DashboardService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Último snapshot calculado; se o primeiro cálculo ainda não rodou, calcula agora
+     */
+    public DashboardSnapshot getSnapshot() {
+        if (snapshot == null) {
+            refresh();
+        }
+        return snapshot;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${todoapp.app.dashboardRefreshMs}",
+               initialDelayString = "${todoapp.app.dashboardRefreshMs}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
+
+        snapshot = DashboardSnapshot.of(
+                userRepository.aggregateDashboardCounts(now, todayStart, todayStart.minusDays(7)), now);
+        logger.debug("Snapshot do dashboard recalculado em {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
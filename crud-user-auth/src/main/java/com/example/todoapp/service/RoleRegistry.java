@@ -0,0 +1,81 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Role;
+import com.example.todoapp.domain.enums.ERole;
+import com.example.todoapp.repository.RoleRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Roles carregadas uma vez na inicialização (DataInitializer) e indexadas pelo enum. A tabela
+ * roles tem três linhas fixas, então cadastros e alterações de usuário não consultam o banco
+ * para montar as roles.
+ */
+@Service
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<ERole, Role> roles;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * Lê a tabela roles e substitui o registro
+     */
+    public void load() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        for (Role role : roleRepository.findAll()) {
+            loaded.put(role.getName(), role);
+        }
+        for (ERole name : ERole.values()) {
+            if (!loaded.containsKey(name)) {
+                throw new IllegalStateException("Role não cadastrada: " + name);
+            }
+        }
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    public Role get(ERole name) {
+        Map<ERole, Role> current = roles;
+        if (current == null) {
+            // Requisição anterior ao DataInitializer
+            load();
+            current = roles;
+        }
+        return current.get(name);
+    }
+
+    /**
+     * Converte os nomes recebidos no cadastro ("admin", "mod"; qualquer outro vale como usuário)
+     * @param names nomes das roles; nulo ou vazio resulta só em ROLE_USER
+     * @return roles correspondentes
+     */
+    public Set<Role> resolve(Collection<String> names) {
+        Set<Role> resolved = new HashSet<>();
+        if (names == null || names.isEmpty()) {
+            resolved.add(get(ERole.ROLE_USER));
+            return resolved;
+        }
+        for (String name : names) {
+            resolved.add(get(parse(name)));
+        }
+        return resolved;
+    }
+
+    public static ERole parse(String name) {
+        return switch (name) {
+            case "admin" -> ERole.ROLE_ADMIN;
+            case "mod" -> ERole.ROLE_MODERATOR;
+            default -> ERole.ROLE_USER;
+        };
+    }
+}
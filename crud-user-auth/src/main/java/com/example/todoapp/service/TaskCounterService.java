@@ -0,0 +1,139 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.TaskCounter;
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.exception.TaskLimitExceededException;
+import com.example.todoapp.payload.response.TaskSummaryResponse;
+import com.example.todoapp.repository.TaskCounterRepository;
+import com.example.todoapp.repository.TaskRepository;
+import com.example.todoapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contadores de tarefas por usuário, estado e prioridade. Cada alteração do TaskService aplica
+ * a diferença na mesma transação, então o resumo e o limite de tarefas são lidos de no máximo
+ * seis linhas, sem contar as tarefas. A reconciliação periódica corrige eventuais divergências.
+ */
+@Service
+public class TaskCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterService.class);
+
+    private final TaskCounterRepository taskCounterRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+    // 0 desativa o limite
+    @Value("${todoapp.app.maxTasksPerUser}")
+    private int maxTasksPerUser;
+
+    public TaskCounterService(TaskCounterRepository taskCounterRepository, TaskRepository taskRepository,
+                              UserRepository userRepository) {
+        this.taskCounterRepository = taskCounterRepository;
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+    }
+
+    public int getMaxTasksPerUser() {
+        return maxTasksPerUser;
+    }
+
+    public void added(Long userId, boolean completed, TaskPriority priority, long count) {
+        if (count != 0) {
+            taskCounterRepository.addToCount(userId, completed, priority.name(), count);
+        }
+    }
+
+    public void removed(Long userId, boolean completed, TaskPriority priority) {
+        taskCounterRepository.addToCount(userId, completed, priority.name(), -1);
+    }
+
+    public void changed(Long userId, boolean wasCompleted, TaskPriority oldPriority,
+                        boolean completed, TaskPriority priority) {
+        if (wasCompleted == completed && oldPriority == priority) {
+            return;
+        }
+        taskCounterRepository.addToCount(userId, wasCompleted, oldPriority.name(), -1);
+        taskCounterRepository.addToCount(userId, completed, priority.name(), 1);
+    }
+
+    /**
+     * Recalcula os contadores do usuário a partir das tarefas; usado depois das operações em massa,
+     * que alteram várias linhas sem saber o estado anterior de cada uma
+     */
+    @Transactional
+    public void recount(Long userId) {
+        taskCounterRepository.deleteByUserId(userId);
+        taskCounterRepository.insertCountsByUserId(userId);
+    }
+
+    /**
+     * Quantas tarefas o usuário ainda pode criar. Trava a linha do usuário até o fim da transação:
+     * criações concorrentes dele (inclusive lotes de importação) verificam o limite e incrementam os
+     * contadores uma de cada vez. A trava fica no usuário porque antes da primeira tarefa ainda não
+     * existe linha de contador para travar, e sem ela dois MERGE criariam a mesma linha ao mesmo
+     * tempo (chave duplicada) mesmo sem limite configurado.
+     * @return vagas restantes, ou Long.MAX_VALUE sem limite configurado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long remainingCapacity(Long userId) {
+        userRepository.lockById(userId);
+        if (maxTasksPerUser <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, maxTasksPerUser - taskCounterRepository.sumByUserId(userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ensureCapacity(Long userId) {
+        if (remainingCapacity(userId) <= 0) {
+            throw new TaskLimitExceededException("Limite de " + maxTasksPerUser + " tarefas por usuário atingido");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TaskSummaryResponse summary(Long userId) {
+        Map<TaskPriority, TaskSummaryResponse.PriorityCount> byPriority = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, new TaskSummaryResponse.PriorityCount(priority, 0, 0));
+        }
+
+        TaskSummaryResponse summary = new TaskSummaryResponse();
+        for (TaskCounter counter : taskCounterRepository.findByUserId(userId)) {
+            TaskSummaryResponse.PriorityCount count = byPriority.get(counter.getPriority());
+            if (counter.isCompleted()) {
+                count.setCompleted(count.getCompleted() + counter.getTaskCount());
+                summary.setCompleted(summary.getCompleted() + counter.getTaskCount());
+            } else {
+                count.setPending(count.getPending() + counter.getTaskCount());
+                summary.setPending(summary.getPending() + counter.getTaskCount());
+            }
+        }
+        summary.setTotal(summary.getPending() + summary.getCompleted());
+        // Atraso depende da hora atual e não cabe num contador: contagem pelo índice (user_id, completed, due_date)
+        summary.setOverdue(taskRepository.countOverdueByUserId(userId));
+        summary.getByPriority().addAll(byPriority.values());
+        return summary;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${todoapp.app.taskCountersReconcileMs}",
+               initialDelayString = "${todoapp.app.taskCountersReconcileMs}")
+    @Transactional
+    public void reconcile() {
+        int fixed = taskCounterRepository.reconcileWithTasks() + taskCounterRepository.resetCountersWithoutTasks();
+        if (fixed > 0) {
+            logger.warn("Reconciliação dos contadores de tarefas corrigiu {} contadores", fixed);
+        }
+    }
+}
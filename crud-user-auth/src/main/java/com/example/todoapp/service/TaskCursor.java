@@ -0,0 +1,53 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição de uma listagem paginada por keyset: as chaves de ordenação do último item
+ * entregue (id, data de vencimento e rank), serializadas em Base64 URL-safe. O rank é a
+ * prioridade na listagem de pendentes e a relevância na busca.
+ */
+record TaskCursor(long id, LocalDateTime dueDate, int rank) {
+
+    private static final String SEPARATOR = ";";
+
+    static TaskCursor of(TaskDTO task) {
+        return new TaskCursor(task.id(), task.dueDate(), priorityRank(task.priority()));
+    }
+
+    /**
+     * Mesma regra da coluna gerada tasks.priority_rank (HIGH = 0, MEDIUM = 1, LOW ou nula = 2)
+     */
+    static int priorityRank(TaskPriority priority) {
+        if (priority == TaskPriority.HIGH) {
+            return 0;
+        }
+        return priority == TaskPriority.MEDIUM ? 1 : 2;
+    }
+
+    String encode() {
+        String raw = id + SEPARATOR + (dueDate != null ? dueDate : "") + SEPARATOR + rank;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new InvalidCursorException("Cursor de paginação inválido");
+            }
+            LocalDateTime dueDate = parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]);
+            return new TaskCursor(Long.parseLong(parts[0]), dueDate, Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor de paginação inválido");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.repository.TaskRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação das tarefas de um usuário em NDJSON ou CSV. As linhas vêm de um cursor
+ * forward-only do banco já projetadas em TaskDTO (nenhuma entidade fica no contexto de
+ * persistência) e são escritas na saída uma a uma, então a memória não cresce com o total.
+ */
+@Service
+public class TaskExportService {
+
+    private static final String CSV_HEADER = "id,title,description,completed,priority,dueDate,createdAt,updatedAt";
+
+    private final TaskRepository taskRepository;
+    private final ObjectWriter taskWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public TaskExportService(TaskRepository taskRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.taskWriter = objectMapper.writerFor(TaskDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Escreve as tarefas do usuário, um objeto JSON por linha
+     * @param userId dono das tarefas (capturado antes, pois a escrita roda fora da thread da requisição)
+     * @param out saída da resposta
+     */
+    public void exportNdjson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator generator = taskWriter.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        forEachTask(userId, task -> {
+            taskWriter.writeValue(generator, task);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+    }
+
+    /**
+     * Escreve as tarefas do usuário em CSV com cabeçalho
+     * @param userId dono das tarefas (capturado antes, pois a escrita roda fora da thread da requisição)
+     * @param out saída da resposta
+     */
+    public void exportCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        forEachTask(userId, task -> {
+            writer.write(String.valueOf(task.id()));
+            writer.write(',');
+            writeCsvField(writer, task.title());
+            writer.write(',');
+            writeCsvField(writer, task.description());
+            writer.write(',');
+            writer.write(String.valueOf(task.completed()));
+            writer.write(',');
+            writeCsvField(writer, task.priority());
+            writer.write(',');
+            writeCsvField(writer, task.dueDate());
+            writer.write(',');
+            writeCsvField(writer, task.createdAt());
+            writer.write(',');
+            writeCsvField(writer, task.updatedAt());
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    private void forEachTask(Long userId, RowWriter rowWriter) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<TaskDTO> tasks = taskRepository.streamByUserId(userId)) {
+                    Iterator<TaskDTO> iterator = tasks.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.write(iterator.next());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(TaskDTO task) throws IOException;
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.payload.response.TaskImportResponse;
+import com.example.todoapp.repository.TaskRepository;
+import com.example.todoapp.security.services.CurrentUserProvider;
+import com.example.todoapp.service.search.TaskTextChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de tarefas em massa a partir de NDJSON ou CSV. O corpo é lido linha a linha
+ * e gravado em lotes de tamanho fixo, cada um na sua transação, de modo que a memória usada
+ * não depende do tamanho do arquivo. Linhas inválidas são puladas e relatadas.
+ */
+@Service
+public class TaskImportService {
+
+    private final TaskRepository taskRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskCounterService taskCounterService;
+    private final ActivityRollupService activityRollupService;
+    private final Validator validator;
+    private final ObjectReader taskReader;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${todoapp.app.importBatchSize}")
+    private int batchSize;
+
+    @Value("${todoapp.app.importMaxReportedErrors}")
+    private int maxReportedErrors;
+
+    public TaskImportService(TaskRepository taskRepository,
+                             CurrentUserProvider currentUserProvider,
+                             ApplicationEventPublisher eventPublisher,
+                             TaskCounterService taskCounterService,
+                             ActivityRollupService activityRollupService,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.currentUserProvider = currentUserProvider;
+        this.eventPublisher = eventPublisher;
+        this.taskCounterService = taskCounterService;
+        this.activityRollupService = activityRollupService;
+        this.validator = validator;
+        this.taskReader = objectMapper.readerFor(TaskDTO.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importa um objeto JSON de tarefa por linha
+     * @param body corpo da requisição
+     * @return relatório com o total importado e os erros por linha
+     */
+    public TaskImportResponse importNdjson(Reader body) throws IOException {
+        Batch batch = new Batch(currentUserProvider.getId());
+        BufferedReader reader = new BufferedReader(body);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(lineNumber, taskReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                batch.reject(lineNumber, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Importa um CSV com cabeçalho (title obrigatório; description, completed, dueDate e priority opcionais).
+     * Campos podem vir entre aspas, mas cada registro deve ocupar uma única linha.
+     * @param body corpo da requisição
+     * @return relatório com o total importado e os erros por linha
+     */
+    public TaskImportResponse importCsv(Reader body) throws IOException {
+        Batch batch = new Batch(currentUserProvider.getId());
+        BufferedReader reader = new BufferedReader(body);
+        String header = reader.readLine();
+        if (header == null) {
+            return batch.finish();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header.replace("\uFEFF", ""));
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            batch.reject(1, "Cabeçalho CSV sem a coluna title");
+            return batch.finish();
+        }
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(lineNumber, fromCsv(parseCsvLine(line), columns));
+            } catch (IllegalArgumentException e) {
+                batch.reject(lineNumber, e.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    private static TaskDTO fromCsv(List<String> values, Map<String, Integer> columns) {
+        String completed = column(values, columns, "completed");
+        String dueDate = column(values, columns, "duedate");
+        String priority = column(values, columns, "priority");
+
+        return TaskDTO.builder()
+                .title(column(values, columns, "title"))
+                .description(column(values, columns, "description"))
+                .completed(completed != null && parseBoolean(completed))
+                .dueDate(dueDate != null ? parseDateTime(dueDate) : null)
+                .priority(priority != null ? parsePriority(priority) : null)
+                .build();
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private static boolean parseBoolean(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "1" -> true;
+            case "false", "0" -> false;
+            default -> throw new IllegalArgumentException("Valor inválido para completed: " + value);
+        };
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida para dueDate: " + value);
+        }
+    }
+
+    private static TaskPriority parsePriority(String value) {
+        try {
+            return TaskPriority.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Prioridade inválida: " + value);
+        }
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * Acumula registros válidos até completar um lote e mantém o relatório da importação
+     */
+    private final class Batch {
+        private final Long userId;
+        private final List<Task> tasks = new ArrayList<>(batchSize);
+        private final List<Long> lines = new ArrayList<>(batchSize);
+        private final TaskImportResponse report = new TaskImportResponse();
+
+        Batch(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(long lineNumber, TaskDTO dto) {
+            if (dto == null) {
+                reject(lineNumber, "Registro vazio");
+                return;
+            }
+            Set<ConstraintViolation<TaskDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(lineNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            // Id e versão da linha (por exemplo, de uma exportação) são ignorados: a importação só cria tarefas
+            tasks.add(dto.toNewEntity());
+            lines.add(lineNumber);
+            if (tasks.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long lineNumber, String message) {
+            report.setRejected(report.getRejected() + 1);
+            if (report.getErrors().size() < maxReportedErrors) {
+                report.getErrors().add(new TaskImportResponse.LineError(lineNumber, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        TaskImportResponse finish() {
+            flush();
+            return report;
+        }
+
+        private void flush() {
+            if (tasks.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Na mesma transação da gravação: a verificação trava o usuário até o commit do lote
+                    long remaining = taskCounterService.remainingCapacity(userId);
+                    if (tasks.size() > remaining) {
+                        int keep = (int) remaining;
+                        for (Long line : lines.subList(keep, lines.size())) {
+                            reject(line, "Limite de " + taskCounterService.getMaxTasksPerUser() + " tarefas por usuário atingido");
+                        }
+                        tasks.subList(keep, tasks.size()).clear();
+                        lines.subList(keep, lines.size()).clear();
+                        if (tasks.isEmpty()) {
+                            return;
+                        }
+                    }
+                    User owner = entityManager.getReference(User.class, userId);
+                    for (Task task : tasks) {
+                        task.setUser(owner);
+                    }
+                    taskRepository.saveAll(tasks);
+                    entityManager.flush();
+                    countByState(tasks).forEach((state, count) ->
+                            taskCounterService.added(userId, state.completed(), state.priority(), count));
+                    activityRollupService.tasksCreated(userId, tasks.size());
+                    activityRollupService.tasksCompleted(userId, tasks.stream().filter(Task::isCompleted).count());
+                    for (Task task : tasks) {
+                        eventPublisher.publishEvent(new TaskTextChangedEvent(
+                                userId, task.getId(), task.getTitle(), task.getDescription()));
+                    }
+                    // Solta as entidades do lote para o contexto de persistência não crescer com a importação
+                    entityManager.clear();
+                });
+                report.setImported(report.getImported() + tasks.size());
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (Long line : lines) {
+                    reject(line, "Falha ao gravar o lote: " + cause);
+                }
+            }
+            tasks.clear();
+            lines.clear();
+        }
+    }
+
+    private static Map<TaskState, Long> countByState(List<Task> tasks) {
+        return tasks.stream().collect(Collectors.groupingBy(
+                task -> new TaskState(task.isCompleted(), task.getPriority()), Collectors.counting()));
+    }
+
+    private record TaskState(boolean completed, TaskPriority priority) {
+    }
+}
@@ -3,115 +3,429 @@ package com.example.todoapp.service;
 import com.example.todoapp.domain.Task;
 import com.example.todoapp.domain.enums.TaskPriority;
 import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.CursorPage;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.dto.TaskFilter;
+import com.example.todoapp.exception.InvalidBulkSelectionException;
+import com.example.todoapp.exception.InvalidCursorException;
+import com.example.todoapp.exception.TaskVersionMismatchException;
+import com.example.todoapp.payload.response.TaskSummaryResponse;
 import com.example.todoapp.repository.TaskRepository;
-import com.example.todoapp.repository.UserRepository;
-import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.security.services.CurrentUserProvider;
+import com.example.todoapp.service.search.TaskSearchIndex;
+import com.example.todoapp.service.search.TaskTextChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final int MAX_BULK_IDS = 1000;
+
     private final TaskRepository taskRepository;
-    private final UserRepository userRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskCounterService taskCounterService;
+    private final ActivityRollupService activityRollupService;
+
+    @Value("${todoapp.app.defaultPageSize}")
+    private int defaultPageSize;
+
+    @Value("${todoapp.app.maxPageSize}")
+    private int maxPageSize;
 
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new EntityNotFoundException("Usuário não encontrado"));
+        return currentUserProvider.getReference();
     }
     
-    private void checkTaskOwnership(Task task) {
-        User currentUser = getCurrentUser();
-        if (!task.getUser().getId().equals(currentUser.getId())) {
-            throw new AccessDeniedException("Você não tem permissão para acessar esta tarefa");
+    /**
+     * Chamado apenas quando a consulta filtrada pelo dono não retornou nada,
+     * para diferenciar tarefa inexistente de tarefa de outro usuário
+     */
+    private RuntimeException taskNotAccessible(Long id) {
+        if (!taskRepository.existsById(id)) {
+            return new EntityNotFoundException("Tarefa não encontrada com o ID: " + id);
         }
+        return new AccessDeniedException("Você não tem permissão para acessar esta tarefa");
     }
 
-    public List<Task> findAllTasks() {
-        User currentUser = getCurrentUser();
-        return taskRepository.findByUser(currentUser);
+    @Transactional(readOnly = true)
+    public Task findTaskById(Long id) {
+        return taskRepository.findByIdAndUserId(id, currentUserProvider.getId())
+                .orElseThrow(() -> taskNotAccessible(id));
     }
 
-    public Task findTaskById(Long id) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Tarefa não encontrada com o ID: " + id));
-        checkTaskOwnership(task);
-        return task;
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> findAllTasks(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return toPage(taskRepository.findPageByUser(
+                currentUserProvider.getId(), afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Task> findTasksByCompleted(boolean completed) {
-        User currentUser = getCurrentUser();
-        return taskRepository.findByCompletedAndUser(completed, currentUser);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> findTasksByCompleted(boolean completed, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return toPage(taskRepository.findPageByCompletedAndUser(
+                completed, currentUserProvider.getId(), afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Task> findTasksByPriority(TaskPriority priority) {
-        User currentUser = getCurrentUser();
-        return taskRepository.findByPriorityAndUser(priority, currentUser);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> findTasksByPriority(TaskPriority priority, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        return toPage(taskRepository.findPageByPriorityAndUser(
+                priority, currentUserProvider.getId(), afterId(cursor), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Task> findOverdueTasks() {
-        User currentUser = getCurrentUser();
-        return taskRepository.findOverdueTasksByUser(currentUser);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> findOverdueTasks(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Long userId = currentUserProvider.getId();
+        if (cursor == null) {
+            return toPage(taskRepository.findOverdueTasksByUser(userId, Limit.of(pageSize + 1)), pageSize);
+        }
+
+        TaskCursor after = TaskCursor.decode(cursor);
+        if (after.dueDate() == null) {
+            throw new InvalidCursorException("Cursor de paginação inválido");
+        }
+        return toPage(taskRepository.findOverdueTasksByUserAfter(
+                userId, after.dueDate(), after.id(), Limit.of(pageSize + 1)), pageSize);
     }
 
-    public List<Task> findPendingTasksOrderByPriorityAndDueDate() {
-        User currentUser = getCurrentUser();
-        return taskRepository.findPendingTasksOrderByPriorityAndDueDateByUser(currentUser);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> findPendingTasksOrderByPriorityAndDueDate(String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Long userId = currentUserProvider.getId();
+        if (cursor == null) {
+            return toPage(taskRepository.findPendingTasksOrderByPriorityAndDueDateByUser(
+                    userId, Limit.of(pageSize + 1)), pageSize);
+        }
+
+        TaskCursor after = TaskCursor.decode(cursor);
+        List<TaskDTO> rows = after.dueDate() != null
+                ? taskRepository.findPendingTasksByUserAfterDated(
+                        userId, after.rank(), after.dueDate(), after.id(), Limit.of(pageSize + 1))
+                : taskRepository.findPendingTasksByUserAfterUndated(
+                        userId, after.rank(), after.id(), Limit.of(pageSize + 1));
+        return toPage(rows, pageSize);
     }
 
-    public List<Task> searchTasksByTitle(String title) {
-        User currentUser = getCurrentUser();
-        return taskRepository.findByTitleContainingIgnoreCaseAndUser(title, currentUser);
+    /**
+     * Busca o termo no título e na descrição das tarefas do usuário, ordenando por relevância.
+     * Enquanto o índice em memória não terminou de ser montado, busca apenas no título pelo banco.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> searchTasks(String text, String cursor, Integer size) {
+        int pageSize = pageSize(size);
+        Long userId = currentUserProvider.getId();
+        if (!taskSearchIndex.isReady()) {
+            return toPage(taskRepository.findPageByTitleLikeAndUser(
+                    containsPattern(text), userId, afterId(cursor), Limit.of(pageSize + 1)), pageSize);
+        }
+
+        List<TaskSearchIndex.Hit> hits = taskSearchIndex.search(userId, text);
+        int from = 0;
+        if (cursor != null) {
+            TaskCursor after = TaskCursor.decode(cursor);
+            while (from < hits.size() && !isAfter(hits.get(from), after)) {
+                from++;
+            }
+        }
+        int to = Math.min(from + pageSize, hits.size());
+        List<TaskSearchIndex.Hit> pageHits = hits.subList(from, to);
+
+        Map<Long, TaskDTO> found = new HashMap<>();
+        List<Long> ids = pageHits.stream().map(TaskSearchIndex.Hit::taskId).collect(Collectors.toList());
+        for (TaskDTO task : taskRepository.findDtosByIdInAndUserId(ids, userId)) {
+            found.put(task.id(), task);
+        }
+
+        List<TaskDTO> content = new ArrayList<>(pageHits.size());
+        for (TaskSearchIndex.Hit hit : pageHits) {
+            TaskDTO task = found.get(hit.taskId());
+            if (task != null) {
+                content.add(task);
+            } else {
+                // Tarefa removida por fora do TaskService: descarta a entrada do índice
+                taskSearchIndex.remove(userId, hit.taskId());
+            }
+        }
+
+        boolean hasNext = to < hits.size();
+        String nextCursor = null;
+        if (hasNext) {
+            TaskSearchIndex.Hit last = hits.get(to - 1);
+            nextCursor = new TaskCursor(last.taskId(), null, last.score()).encode();
+        }
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    private static boolean isAfter(TaskSearchIndex.Hit hit, TaskCursor cursor) {
+        return hit.score() < cursor.rank() || (hit.score() == cursor.rank() && hit.taskId() > cursor.id());
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(requested, maxPageSize));
+    }
+
+    private static long afterId(String cursor) {
+        return cursor != null ? TaskCursor.decode(cursor).id() : 0L;
+    }
+
+    /**
+     * Monta a página a partir de uma consulta que buscou um item além do tamanho pedido,
+     * usado apenas para saber se existe próxima página
+     */
+    private static CursorPage<TaskDTO> toPage(List<TaskDTO> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskDTO> content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasNext ? TaskCursor.of(content.get(pageSize - 1)).encode() : null;
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    private static String containsPattern(String title) {
+        String escaped = title.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Totais das tarefas do usuário, lidos dos contadores mantidos a cada alteração
+     */
+    public TaskSummaryResponse getTaskSummary() {
+        return taskCounterService.summary(currentUserProvider.getId());
     }
 
     @Transactional
     public Task createTask(Task task) {
+        Long userId = currentUserProvider.getId();
+        taskCounterService.ensureCapacity(userId);
+
         User currentUser = getCurrentUser();
         task.setUser(currentUser);
         
         task.setCompleted(false);
+        if (task.getPriority() == null) {
+            task.setPriority(TaskPriority.MEDIUM);
+        }
         
         task.setCreatedAt(LocalDateTime.now());
         
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskCounterService.added(userId, false, saved.getPriority(), 1);
+        activityRollupService.tasksCreated(userId, 1);
+        publishTextChanged(saved);
+        return saved;
     }
 
+    /**
+     * Aplica as alterações sobre a tarefa carregada uma única vez, dentro da mesma transação.
+     * Uma alteração concorrente entre a leitura e a gravação é detectada pelo @Version da entidade.
+     * @param id id da tarefa
+     * @param expectedVersion versão que o cliente leu (If-Match); null para não verificar
+     * @param changes alterações a aplicar na entidade gerenciada
+     * @return tarefa atualizada
+     */
     @Transactional
-    public Task updateTask(Long id, Task taskDetails) {
+    public Task updateTask(Long id, Long expectedVersion, Consumer<Task> changes) {
         Task task = findTaskById(id);
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new TaskVersionMismatchException("A tarefa está na versão " + task.getVersion()
+                    + ", diferente da versão esperada " + expectedVersion);
+        }
 
-        task.setTitle(taskDetails.getTitle());
-        task.setDescription(taskDetails.getDescription());
-        task.setCompleted(taskDetails.isCompleted());
-        task.setPriority(taskDetails.getPriority());
-        task.setDueDate(taskDetails.getDueDate());
+        boolean wasCompleted = task.isCompleted();
+        TaskPriority oldPriority = task.getPriority();
+        changes.accept(task);
+        boolean firstCompletion = task.isCompleted() && task.getCompletedAt() == null;
+        if (firstCompletion) {
+            task.setCompletedAt(LocalDateTime.now());
+        }
         
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        Long userId = currentUserProvider.getId();
+        taskCounterService.changed(userId, wasCompleted, oldPriority, saved.isCompleted(), saved.getPriority());
+        if (firstCompletion) {
+            activityRollupService.tasksCompleted(userId, 1);
+        }
+        publishTextChanged(saved);
+        return saved;
     }
 
+    /**
+     * Inverte o estado de conclusão num UPDATE atômico, sem ler a tarefa antes. Só a primeira
+     * conclusão conta no relatório de atividades; reabrir e concluir de novo não soma outra vez.
+     * @param id id da tarefa
+     * @return tarefa com o novo estado
+     */
     @Transactional
-    public Task toggleTaskCompletion(Long id) {
-        Task task = findTaskById(id);
+    public TaskDTO toggleTaskCompletion(Long id) {
+        Long userId = currentUserProvider.getId();
+        LocalDateTime now = LocalDateTime.now();
+        boolean firstCompletion = taskRepository.markFirstCompletionByIdAndUserId(id, userId, now) > 0;
+        if (taskRepository.toggleCompletedByIdAndUserId(id, userId, now) == 0) {
+            throw taskNotAccessible(id);
+        }
+        TaskDTO toggled = taskRepository.findDtoByIdAndUserId(id, userId).orElseThrow(() -> taskNotAccessible(id));
+        taskCounterService.changed(userId, !toggled.completed(), toggled.priority(),
+                toggled.completed(), toggled.priority());
+        if (firstCompletion) {
+            activityRollupService.tasksCompleted(userId, 1);
+        }
+        return toggled;
+    }
 
-        task.setCompleted(!task.isCompleted());
-        return taskRepository.save(task);
+    /**
+     * Conclui a tarefa com um UPDATE condicional; concluir uma tarefa já concluída não a altera
+     * @param id id da tarefa
+     * @return tarefa concluída
+     */
+    @Transactional
+    public TaskDTO completeTask(Long id) {
+        Long userId = currentUserProvider.getId();
+        LocalDateTime now = LocalDateTime.now();
+        boolean firstCompletion = taskRepository.markFirstCompletionByIdAndUserId(id, userId, now) > 0;
+        boolean changed = taskRepository.completeByIdAndUserId(id, userId, now) > 0;
+        TaskDTO completed = taskRepository.findDtoByIdAndUserId(id, userId).orElseThrow(() -> taskNotAccessible(id));
+        if (changed) {
+            taskCounterService.changed(userId, false, completed.priority(), true, completed.priority());
+        }
+        if (firstCompletion) {
+            activityRollupService.tasksCompleted(userId, 1);
+        }
+        return completed;
     }
 
     @Transactional
     public void deleteTask(Long id) {
-        Task task = findTaskById(id);
+        Long userId = currentUserProvider.getId();
+        // Lê o estado antes de excluir para descontar do contador certo
+        TaskDTO task = taskRepository.findDtoByIdAndUserId(id, userId).orElseThrow(() -> taskNotAccessible(id));
+        if (taskRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw taskNotAccessible(id);
+        }
+        taskCounterService.removed(userId, task.completed(), task.priority());
+        eventPublisher.publishEvent(TaskTextChangedEvent.removed(userId, id));
+    }
+
+    /**
+     * Marca como concluídas (ou reabre) as tarefas selecionadas num único UPDATE
+     * @param ids ids das tarefas; tarefas de outros usuários são ignoradas
+     * @param filter critérios de seleção, usados quando ids não é informado
+     * @param completed novo estado
+     * @return quantidade de tarefas alteradas
+     */
+    @Transactional
+    public int setTasksCompleted(List<Long> ids, TaskFilter filter, boolean completed) {
+        Long userId = currentUserProvider.getId();
+        LocalDateTime now = LocalDateTime.now();
+        boolean byIds = requireSelection(ids, filter);
+        int firstCompletions = 0;
+        if (completed) {
+            firstCompletions = byIds
+                    ? taskRepository.markFirstCompletionByIdInAndUserId(now, ids, userId)
+                    : taskRepository.markFirstCompletionByFilterAndUserId(now, userId,
+                            filter.getCompleted(), filter.getPriority(), filter.getDueBefore());
+        }
+        int updated = byIds
+                ? taskRepository.updateCompletedByIdInAndUserId(completed, now, ids, userId)
+                : taskRepository.updateCompletedByFilterAndUserId(completed, now, userId,
+                        filter.getCompleted(), filter.getPriority(), filter.getDueBefore());
+        if (updated > 0) {
+            taskCounterService.recount(userId);
+        }
+        activityRollupService.tasksCompleted(userId, firstCompletions);
+        return updated;
+    }
+
+    /**
+     * Altera a prioridade das tarefas selecionadas num único UPDATE
+     * @return quantidade de tarefas alteradas
+     */
+    @Transactional
+    public int setTasksPriority(List<Long> ids, TaskFilter filter, TaskPriority priority) {
+        Long userId = currentUserProvider.getId();
+        int updated = requireSelection(ids, filter)
+                ? taskRepository.updatePriorityByIdInAndUserId(priority, LocalDateTime.now(), ids, userId)
+                : taskRepository.updatePriorityByFilterAndUserId(priority, LocalDateTime.now(), userId,
+                        filter.getCompleted(), filter.getPriority(), filter.getDueBefore());
+        if (updated > 0) {
+            taskCounterService.recount(userId);
+        }
+        return updated;
+    }
+
+    /**
+     * Exclui as tarefas selecionadas num único DELETE. Os ids apagados são lidos (e travados) antes,
+     * na mesma transação, para retirar do índice de busca só as tarefas que de fato saíram.
+     * @return quantidade de tarefas excluídas
+     */
+    @Transactional
+    public int deleteTasks(List<Long> ids, TaskFilter filter) {
+        Long userId = currentUserProvider.getId();
+        int deleted;
+        List<Long> deletedIds;
+        if (requireSelection(ids, filter)) {
+            // Só os ids do usuário; os demais são ignorados sem aviso ao índice
+            deletedIds = taskRepository.lockIdsByIdInAndUserId(ids, userId);
+            deleted = deletedIds.isEmpty() ? 0 : taskRepository.deleteByIdInAndUserId(deletedIds, userId);
+        } else {
+            deletedIds = taskRepository.lockIdsByFilterAndUserId(userId,
+                    filter.getCompleted(), filter.getPriority(), filter.getDueBefore());
+            // Tarefas inseridas depois da leitura que também atendam ao filtro saem do índice na próxima busca
+            deleted = taskRepository.deleteByFilterAndUserId(userId,
+                    filter.getCompleted(), filter.getPriority(), filter.getDueBefore());
+        }
+
+        if (deleted > 0) {
+            taskCounterService.recount(userId);
+        }
+        for (Long id : deletedIds) {
+            eventPublisher.publishEvent(TaskTextChangedEvent.removed(userId, id));
+        }
+        return deleted;
+    }
+
+    /**
+     * Valida a seleção de uma operação em massa
+     * @return true para selecionar por ids, false para selecionar pelo filtro
+     */
+    private static boolean requireSelection(List<Long> ids, TaskFilter filter) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = filter != null && !filter.isEmpty();
+        if (byIds == byFilter) {
+            throw new InvalidBulkSelectionException(
+                    "Informe os ids das tarefas ou um filtro com ao menos um critério, não os dois");
+        }
+        if (byIds && ids.size() > MAX_BULK_IDS) {
+            throw new InvalidBulkSelectionException("Informe no máximo " + MAX_BULK_IDS + " ids por operação");
+        }
+        return byIds;
+    }
 
-        taskRepository.delete(task);
+    private void publishTextChanged(Task task) {
+        eventPublisher.publishEvent(new TaskTextChangedEvent(
+                currentUserProvider.getId(), task.getId(), task.getTitle(), task.getDescription()));
     }
 }
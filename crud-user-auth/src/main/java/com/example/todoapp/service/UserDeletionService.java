@@ -0,0 +1,97 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.User;
+import com.example.todoapp.repository.TaskRepository;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.security.services.UserAccountChangedEvent;
+import com.example.todoapp.service.search.TaskSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Exclusão de contas sem carregar as tarefas. Antes de tudo a conta é desativada e os tokens
+ * emitidos são invalidados, para que nenhuma tarefa nova apareça durante a exclusão. As tarefas
+ * são apagadas por DELETEs de no máximo userDeleteChunkSize linhas, cada um na sua transação, para
+ * os locks durarem pouco; por último, numa só transação, saem as tarefas que ainda restarem, os
+ * vínculos de roles e o usuário (contadores e totais diários caem por ON DELETE CASCADE).
+ * Se a exclusão falhar no meio, a conta continua existindo, desativada, e uma nova tentativa
+ * termina o serviço.
+ */
+@Service
+public class UserDeletionService {
+    private static final Logger logger = LoggerFactory.getLogger(UserDeletionService.class);
+
+    private final UserRepository userRepository;
+    private final TaskRepository taskRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${todoapp.app.userDeleteChunkSize}")
+    private int chunkSize;
+
+    public UserDeletionService(UserRepository userRepository,
+                               TaskRepository taskRepository,
+                               TaskSearchIndex taskSearchIndex,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.taskRepository = taskRepository;
+        this.taskSearchIndex = taskSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Exclui o usuário, suas tarefas e seus vínculos de roles
+     * @param userId id do usuário
+     * @return quantidade de tarefas apagadas
+     */
+    public long delete(Long userId) {
+        long start = System.nanoTime();
+        String username = transactionTemplate.execute(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado com id: " + userId));
+            user.setActive(false);
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            user.setUpdatedAt(LocalDateTime.now());
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userId, user.getUsername()));
+            return user.getUsername();
+        });
+
+        long deletedTasks = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> taskRepository.deleteChunkByUserId(userId, chunkSize));
+            deletedTasks += deleted;
+        } while (deleted >= chunkSize);
+
+        // Uma requisição autenticada antes da desativação ainda pode ter criado tarefas depois do último bloco
+        deletedTasks += transactionTemplate.execute(status -> {
+            long remaining = 0;
+            int chunk;
+            do {
+                chunk = taskRepository.deleteChunkByUserId(userId, chunkSize);
+                remaining += chunk;
+            } while (chunk >= chunkSize);
+            userRepository.deleteRoleLinksByUserId(userId);
+            userRepository.deleteByIdDirectly(userId);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userId, username));
+            return remaining;
+        });
+        taskSearchIndex.removeUser(userId);
+
+        logger.info("Conta {} excluída com {} tarefas em {} ms",
+                userId, deletedTasks, (System.nanoTime() - start) / 1_000_000);
+        return deletedTasks;
+    }
+}
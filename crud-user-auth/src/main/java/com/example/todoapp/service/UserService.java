@@ -4,20 +4,21 @@ import com.example.todoapp.domain.enums.ERole;
 import com.example.todoapp.domain.Role;
 import com.example.todoapp.domain.User;
 import com.example.todoapp.dto.UserDTO;
-import com.example.todoapp.repository.RoleRepository;
 import com.example.todoapp.repository.UserRepository;
-import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.security.services.CurrentUserProvider;
+import com.example.todoapp.security.services.UserAccountChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -29,21 +30,35 @@ public class UserService {
     private UserRepository userRepository;
     
     @Autowired
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
     
     @Autowired
     private PasswordEncoder encoder;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+    
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+    
+    @Transactional(readOnly = true)
     public Page<UserDTO> getAllUsers(Pageable pageable) {
         validateAdminAccess();
         return userRepository.findAll(pageable)
                 .map(UserDTO::fromEntity);
     }
     
+    @Transactional(readOnly = true)
     public Optional<UserDTO> getUserById(Long id) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserProvider.getId();
         
-        if (!hasRole("ADMIN") && !currentUser.getId().equals(id)) {
+        if (!hasRole("ADMIN") && !currentUserId.equals(id)) {
             throw new RuntimeException("Acesso negado: você só pode acessar seu próprio perfil");
         }
         
@@ -51,10 +66,11 @@ public class UserService {
                 .map(UserDTO::fromEntity);
     }
     
+    @Transactional(readOnly = true)
     public Optional<UserDTO> getUserByUsername(String username) {
-        User currentUser = getCurrentUser();
+        String currentUsername = currentUserProvider.getUsername();
         
-        if (!hasRole("ADMIN") && !currentUser.getUsername().equals(username)) {
+        if (!hasRole("ADMIN") && !currentUsername.equals(username)) {
             throw new RuntimeException("Acesso negado: você só pode acessar seu próprio perfil");
         }
         
@@ -78,41 +94,18 @@ public class UserService {
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         
-        Set<Role> roles = new HashSet<>();
-        if (userDTO.getRoles() == null || userDTO.getRoles().isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-            roles.add(userRole);
-        } else {
-            userDTO.getRoles().forEach(role -> {
-                switch (role) {
-                    case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                        roles.add(adminRole);
-                        break;
-                    case "mod":
-                        Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                                .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                        roles.add(modRole);
-                        break;
-                    default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                        roles.add(userRole);
-                }
-            });
-        }
+        Set<Role> roles = roleRegistry.resolve(userDTO.getRoles());
         
         user.setRoles(roles);
         User savedUser = userRepository.save(user);
+        activityRollupService.userCreated();
         return UserDTO.fromEntity(savedUser);
     }
     
     public UserDTO updateUser(Long id, UserDTO userDTO) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserProvider.getId();
         
-        if (!hasRole("ADMIN") && !currentUser.getId().equals(id)) {
+        if (!hasRole("ADMIN") && !currentUserId.equals(id)) {
             throw new RuntimeException("Acesso negado: você só pode atualizar seu próprio perfil");
         }
         
@@ -129,52 +122,44 @@ public class UserService {
             throw new RuntimeException("Erro: Email já está em uso!");
         }
         
+        String previousUsername = user.getUsername();
+        boolean principalChanged = !previousUsername.equals(userDTO.getUsername())
+                || !user.getEmail().equals(userDTO.getEmail());
+        
         user.setUsername(userDTO.getUsername());
         user.setEmail(userDTO.getEmail());
         user.setUpdatedAt(LocalDateTime.now());
         
         if (hasRole("ADMIN")) {
+            principalChanged |= user.isActive() != userDTO.isActive();
             user.setActive(userDTO.isActive());
             
             if (userDTO.getRoles() != null && !userDTO.getRoles().isEmpty()) {
-                Set<Role> roles = new HashSet<>();
-                userDTO.getRoles().forEach(role -> {
-                    switch (role) {
-                        case "admin":
-                            Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                    .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                            roles.add(adminRole);
-                            break;
-                        case "mod":
-                            Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                                    .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                            roles.add(modRole);
-                            break;
-                        default:
-                            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                    .orElseThrow(() -> new RuntimeException("Erro: Role não encontrada."));
-                            roles.add(userRole);
-                    }
-                });
+                Set<Role> roles = roleRegistry.resolve(userDTO.getRoles());
+                principalChanged |= !roles.equals(user.getRoles());
                 user.setRoles(roles);
             }
         }
         
+        if (principalChanged) {
+            revokeIssuedTokens(user, previousUsername);
+        }
+        
         User updatedUser = userRepository.save(user);
         return UserDTO.fromEntity(updatedUser);
     }
     
     public void changePassword(Long id, String currentPassword, String newPassword) {
-        User currentUser = getCurrentUser();
+        Long currentUserId = currentUserProvider.getId();
         
-        if (!hasRole("ADMIN") && !currentUser.getId().equals(id)) {
+        if (!hasRole("ADMIN") && !currentUserId.equals(id)) {
             throw new RuntimeException("Acesso negado: você só pode alterar sua própria senha");
         }
         
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado com id: " + id));
         
-        if (!hasRole("ADMIN") || currentUser.getId().equals(id)) {
+        if (!hasRole("ADMIN") || currentUserId.equals(id)) {
             if (!encoder.matches(currentPassword, user.getPassword())) {
                 throw new RuntimeException("Senha atual incorreta");
             }
@@ -182,6 +167,7 @@ public class UserService {
         
         user.setPassword(encoder.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
+        revokeIssuedTokens(user, user.getUsername());
         userRepository.save(user);
     }
     
@@ -193,6 +179,7 @@ public class UserService {
         
         user.setActive(false);
         user.setUpdatedAt(LocalDateTime.now());
+        revokeIssuedTokens(user, user.getUsername());
         userRepository.save(user);
     }
     
@@ -205,17 +192,19 @@ public class UserService {
         user.setActive(true);
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getUsername()));
     }
     
+    /**
+     * Exclui a conta; as tarefas são apagadas em blocos, cada um na sua transação
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteUser(Long id) {
         validateAdminAccess();
-        
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado com id: " + id));
-        
-        userRepository.delete(user);
+        userDeletionService.delete(id);
     }
     
+    @Transactional(readOnly = true)
     public Page<UserDTO> getUsersByRole(String roleName, Pageable pageable) {
         if (!hasRole("ADMIN") && !hasRole("MODERATOR")) {
             throw new RuntimeException("Acesso negado: apenas administradores e moderadores podem listar usuários por role");
@@ -232,11 +221,15 @@ public class UserService {
                 .map(UserDTO::fromEntity);
     }
     
-    public User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        return userRepository.findById(userDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Usuário atual não encontrado"));
+    /**
+     * Incrementa a versão de token do usuário, invalidando os JWTs já emitidos para ele
+     * @param user usuário gerenciado que será salvo na transação corrente
+     * @param previousUsername username antes da alteração
+     */
+    private void revokeIssuedTokens(User user, String previousUsername) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(user.getId(), user.getUsername(),
+                previousUsername.equals(user.getUsername()) ? null : previousUsername));
     }
     
     private boolean hasRole(String roleName) {
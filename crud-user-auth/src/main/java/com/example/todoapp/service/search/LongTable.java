@@ -0,0 +1,128 @@
+package com.example.todoapp.service.search;
+
+/**
+ * Mapa de chave long em tabela de endereçamento aberto (long[] e Object[], sem boxing nem um nó
+ * por entrada). A chave 0 marca posição livre e não pode ser usada: ids de tarefa vêm de sequence
+ * e nenhum trigrama é zero, porque o texto normalizado não tem o caractere 0.
+ */
+final class LongTable<V> {
+
+    private static final long FREE = 0L;
+
+    private long[] keys = new long[8];
+    private Object[] values = new Object[8];
+    private int size;
+
+    interface Visitor<V> {
+        void visit(long key, V value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    /**
+     * @return valor anterior da chave, ou null
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        int slot = find(key);
+        if (slot >= 0) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        // Ocupação máxima de 2/3 mantém as sondagens curtas
+        if ((size + 1) * 3 > keys.length * 2) {
+            resize(keys.length * 2);
+        }
+        insert(key, value);
+        size++;
+        return null;
+    }
+
+    /**
+     * @return valor removido, ou null se a chave não estava na tabela
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        deleteAt(slot);
+        size--;
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(Visitor<V> visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                visitor.visit(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & (keys.length - 1);
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = home(key); keys[slot] != FREE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long key, Object value) {
+        int mask = keys.length - 1;
+        int slot = home(key);
+        while (keys[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Remoção sem marcador: puxa para a posição livre as entradas seguintes da mesma sequência
+     * que não ficariam mais alcançáveis a partir da sua posição de origem
+     */
+    private void deleteAt(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        for (int i = (slot + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+            int home = home(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.todoapp.service.search;
+
+import com.example.todoapp.dto.TaskText;
+import com.example.todoapp.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas sobre título e descrição das tarefas, separado por usuário.
+ * A busca intersecta as listas de ids dos trigramas da consulta e confirma cada candidato
+ * contra o texto normalizado, então só olha as tarefas do usuário que podem conter o termo.
+ * É reconstruído a partir do banco na inicialização e mantido pelos eventos do TaskService.
+ * <p>
+ * Memória: para a confirmação guarda-se só o texto normalizado de cada tarefa (título e descrição
+ * numa String, ~1 byte por caractere); textos e listas ficam em tabelas sem boxing, e o grosso são
+ * as listas de trigramas, 8 bytes por trigrama distinto da tarefa. Medido com ~130 caracteres por tarefa: ~1,1 KB por
+ * tarefa. Com título e descrição limitados a 255 e 1000 caracteres, uma tarefa ocupa no máximo
+ * ~18 KB.
+ */
+@Component
+public class TaskSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    /**
+     * Separa título e descrição no texto normalizado guardado por tarefa
+     */
+    static final char SEPARATOR = '\u0000';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int TITLE_PREFIX_SCORE = 3;
+    private static final int TITLE_SCORE = 2;
+    private static final int DESCRIPTION_SCORE = 1;
+
+    private static final Comparator<Hit> BY_RELEVANCE =
+            Comparator.comparingInt(Hit::score).reversed().thenComparingLong(Hit::taskId);
+
+    private final TaskRepository taskRepository;
+
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public TaskSearchIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * Resultado da busca: id da tarefa e relevância (maior é melhor)
+     */
+    public record Hit(long taskId, int score) {
+    }
+
+    /**
+     * Indica se a reconstrução inicial terminou; antes disso a busca deve ir ao banco
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        users.clear();
+        try (Stream<TaskText> texts = taskRepository.streamAllTaskTexts()) {
+            texts.forEach(text -> index(text.userId(), text.id(), text.title(), text.description()));
+        }
+        ready = true;
+        logger.info("Índice de busca de tarefas reconstruído: {} usuários em {} ms",
+                users.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskTextChanged(TaskTextChangedEvent event) {
+        if (event.isRemoval()) {
+            remove(event.userId(), event.taskId());
+        } else {
+            index(event.userId(), event.taskId(), event.title(), event.description());
+        }
+    }
+
+    public void index(Long userId, Long taskId, String title, String description) {
+        UserIndex userIndex = users.computeIfAbsent(userId, id -> new UserIndex());
+        String text = join(normalize(title), description != null ? normalize(description) : null);
+
+        userIndex.lock.writeLock().lock();
+        try {
+            String previous = userIndex.documents.put(taskId, text);
+            if (previous != null) {
+                userIndex.removePostings(taskId, previous);
+            }
+            for (long trigram : trigrams(text)) {
+                PostingList list = userIndex.postings.get(trigram);
+                if (list == null) {
+                    list = new PostingList();
+                    userIndex.postings.put(trigram, list);
+                }
+                list.add(taskId);
+            }
+        } finally {
+            userIndex.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId, Long taskId) {
+        UserIndex userIndex = users.get(userId);
+        if (userIndex == null) {
+            return;
+        }
+
+        userIndex.lock.writeLock().lock();
+        try {
+            String previous = userIndex.documents.remove(taskId);
+            if (previous != null) {
+                userIndex.removePostings(taskId, previous);
+            }
+        } finally {
+            userIndex.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta o índice inteiro de um usuário (conta excluída)
+     */
+    public void removeUser(Long userId) {
+        users.remove(userId);
+    }
+
+    /**
+     * Busca o termo (sem diferenciar maiúsculas e acentos) no título e na descrição das tarefas do usuário
+     * @param userId id do dono das tarefas
+     * @param query termo buscado
+     * @return tarefas encontradas, das mais relevantes para as menos relevantes e depois por id
+     */
+    public List<Hit> search(Long userId, String query) {
+        UserIndex userIndex = users.get(userId);
+        if (userIndex == null) {
+            return List.of();
+        }
+        String term = normalize(query);
+
+        List<Hit> hits = new ArrayList<>();
+        userIndex.lock.readLock().lock();
+        try {
+            if (term.length() < 3) {
+                // Termos curtos não formam trigrama: verifica direto as tarefas do usuário
+                userIndex.documents.forEach((taskId, text) -> addIfMatches(hits, taskId, text, term));
+            } else {
+                PostingList[] lists = userIndex.postingsFor(term);
+                if (lists != null) {
+                    PostingList smallest = lists[0];
+                    for (int i = 0; i < smallest.size(); i++) {
+                        long taskId = smallest.get(i);
+                        if (containsInAll(lists, taskId)) {
+                            addIfMatches(hits, taskId, userIndex.documents.get(taskId), term);
+                        }
+                    }
+                }
+            }
+        } finally {
+            userIndex.lock.readLock().unlock();
+        }
+
+        hits.sort(BY_RELEVANCE);
+        return hits;
+    }
+
+    private static boolean containsInAll(PostingList[] lists, long taskId) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(taskId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addIfMatches(List<Hit> hits, long taskId, String text, String term) {
+        int score = score(text, term);
+        if (score > 0) {
+            hits.add(new Hit(taskId, score));
+        }
+    }
+
+    /**
+     * Pontua pela primeira ocorrência do termo: como o título vem antes do separador, uma
+     * ocorrência que termina depois dele só pode estar na descrição
+     */
+    private static int score(String text, String term) {
+        int at = text.indexOf(term);
+        if (at < 0) {
+            return 0;
+        }
+        if (at + term.length() > titleEnd(text)) {
+            return DESCRIPTION_SCORE;
+        }
+        return at == 0 ? TITLE_PREFIX_SCORE : TITLE_SCORE;
+    }
+
+    private static int titleEnd(String text) {
+        int separator = text.indexOf(SEPARATOR);
+        return separator >= 0 ? separator : text.length();
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT)
+                .replace(SEPARATOR, ' ');
+    }
+
+    static String join(String title, String description) {
+        return description != null ? title + SEPARATOR + description : title;
+    }
+
+    /**
+     * Trigramas distintos do título e da descrição, em ordem crescente
+     */
+    private static long[] trigrams(String text) {
+        int titleEnd = titleEnd(text);
+        long[] trigrams = new long[Math.max(titleEnd - 2, 0) + Math.max(text.length() - titleEnd - 3, 0)];
+        int count = addTrigrams(trigrams, 0, text, 0, titleEnd);
+        addTrigrams(trigrams, count, text, titleEnd + 1, text.length());
+        return distinct(trigrams);
+    }
+
+    private static int addTrigrams(long[] trigrams, int count, String text, int from, int to) {
+        for (int i = from; i + 3 <= to; i++) {
+            trigrams[count++] = trigram(text, i);
+        }
+        return count;
+    }
+
+    private static long[] distinct(long[] values) {
+        if (values.length < 2) {
+            return values;
+        }
+        Arrays.sort(values);
+        int count = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    private static final class UserIndex {
+        final LongTable<PostingList> postings = new LongTable<>();
+        final LongTable<String> documents = new LongTable<>();
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void removePostings(long taskId, String text) {
+            for (long trigram : trigrams(text)) {
+                PostingList list = postings.get(trigram);
+                if (list != null && list.remove(taskId) && list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+
+        /**
+         * Listas dos trigramas do termo, da menor para a maior, ou null se algum trigrama não existir
+         */
+        PostingList[] postingsFor(String term) {
+            long[] termTrigrams = new long[term.length() - 2];
+            addTrigrams(termTrigrams, 0, term, 0, term.length());
+            termTrigrams = distinct(termTrigrams);
+
+            PostingList[] lists = new PostingList[termTrigrams.length];
+            for (int i = 0; i < termTrigrams.length; i++) {
+                PostingList list = postings.get(termTrigrams[i]);
+                if (list == null) {
+                    return null;
+                }
+                lists[i] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            return lists;
+        }
+    }
+}
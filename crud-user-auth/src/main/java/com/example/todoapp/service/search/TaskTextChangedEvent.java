@@ -0,0 +1,16 @@
+package com.example.todoapp.service.search;
+
+/**
+ * Publicado pelo TaskService quando o título ou a descrição de uma tarefa muda, ou quando
+ * ela é removida (title null). O índice de busca aplica a mudança depois do commit.
+ */
+public record TaskTextChangedEvent(Long userId, Long taskId, String title, String description) {
+
+    public static TaskTextChangedEvent removed(Long userId, Long taskId) {
+        return new TaskTextChangedEvent(userId, taskId, null, null);
+    }
+
+    public boolean isRemoval() {
+        return title == null;
+    }
+}
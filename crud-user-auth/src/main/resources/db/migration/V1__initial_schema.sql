@@ -0,0 +1,43 @@
+-- Schema inicial, equivalente ao que o Hibernate gerava com ddl-auto=update
+
+CREATE TABLE roles (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(20) CHECK (name IN ('ROLE_USER', 'ROLE_MODERATOR', 'ROLE_ADMIN')),
+    CONSTRAINT pk_roles PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username      VARCHAR(20),
+    email         VARCHAR(50),
+    password      VARCHAR(120),
+    active        BOOLEAN NOT NULL,
+    token_version INTEGER NOT NULL DEFAULT 0,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id INTEGER NOT NULL,
+    CONSTRAINT pk_user_roles PRIMARY KEY (role_id, user_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+CREATE TABLE tasks (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title       VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    completed   BOOLEAN NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    due_date    TIMESTAMP(6),
+    priority    VARCHAR(255) CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    user_id     BIGINT NOT NULL,
+    CONSTRAINT pk_tasks PRIMARY KEY (id),
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
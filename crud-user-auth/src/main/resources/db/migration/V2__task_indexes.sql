@@ -0,0 +1,20 @@
+-- Índices compostos para as consultas de TaskRepository, todas filtradas por user_id
+
+-- Ordem de prioridade usada na listagem de pendentes (HIGH, MEDIUM, LOW/nulo),
+-- materializada para que o índice possa atender o ORDER BY
+ALTER TABLE tasks ADD COLUMN priority_rank INTEGER GENERATED ALWAYS AS (
+    CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END
+);
+
+-- findByCompletedAndUser e findPendingTasksOrderByPriorityAndDueDateByUser
+CREATE INDEX idx_tasks_user_completed_rank_due
+    ON tasks (user_id, completed, priority_rank, due_date NULLS LAST, id);
+
+-- findOverdueTasksByUser
+CREATE INDEX idx_tasks_user_completed_due ON tasks (user_id, completed, due_date);
+
+-- findByPriorityAndUser
+CREATE INDEX idx_tasks_user_priority ON tasks (user_id, priority);
+
+-- findByDueDateBeforeAndUser
+CREATE INDEX idx_tasks_user_due ON tasks (user_id, due_date);
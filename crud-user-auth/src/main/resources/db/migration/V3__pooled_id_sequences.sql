@@ -0,0 +1,11 @@
+-- Ids de tasks e users passam a vir de sequences com incremento 50 (otimizador pooled do Hibernate),
+-- o que permite agrupar os INSERTs em lotes JDBC. Cada valor da sequence é o topo de um bloco de
+-- 50 ids, então o reinício fica 50 acima do maior id existente.
+
+CREATE SEQUENCE tasks_seq START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE tasks_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM tasks);
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE users_seq START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
@@ -0,0 +1,3 @@
+-- Versão da tarefa para controle de concorrência otimista (ETag/If-Match e @Version do Hibernate)
+
+ALTER TABLE tasks ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
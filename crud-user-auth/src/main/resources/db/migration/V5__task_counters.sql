@@ -0,0 +1,18 @@
+-- Contadores de tarefas por usuário, estado de conclusão e prioridade, mantidos pelo TaskService
+-- a cada alteração. Tarefas sem prioridade passam a ser MEDIUM, o padrão da entidade.
+
+UPDATE tasks SET priority = 'MEDIUM' WHERE priority IS NULL;
+
+CREATE TABLE task_counters (
+    user_id    BIGINT NOT NULL,
+    completed  BOOLEAN NOT NULL,
+    priority   VARCHAR(255) NOT NULL CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH')),
+    task_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_task_counters PRIMARY KEY (user_id, completed, priority),
+    CONSTRAINT fk_task_counters_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+INSERT INTO task_counters (user_id, completed, priority, task_count)
+SELECT user_id, completed, priority, COUNT(*)
+FROM tasks
+GROUP BY user_id, completed, priority;
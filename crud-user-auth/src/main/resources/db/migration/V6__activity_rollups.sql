@@ -0,0 +1,19 @@
+-- Totais diários de atividade para o relatório dos moderadores, atualizados a cada alteração e
+-- recalculados pelo backfill. A consulta de um período lê uma linha por dia, sem varrer tasks.
+
+CREATE TABLE activity_daily (
+    activity_date   DATE NOT NULL,
+    users_created   BIGINT NOT NULL DEFAULT 0,
+    tasks_created   BIGINT NOT NULL DEFAULT 0,
+    tasks_completed BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_activity_daily PRIMARY KEY (activity_date)
+);
+
+CREATE TABLE activity_user_daily (
+    activity_date   DATE NOT NULL,
+    user_id         BIGINT NOT NULL,
+    tasks_created   BIGINT NOT NULL DEFAULT 0,
+    tasks_completed BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_activity_user_daily PRIMARY KEY (activity_date, user_id),
+    CONSTRAINT fk_activity_user_daily_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
@@ -0,0 +1,7 @@
+-- Momento da primeira conclusão da tarefa. Reabrir não o apaga, então concluir de novo não conta
+-- outra vez no relatório de atividades, e o backfill lê as conclusões por esta coluna.
+-- Tarefas já concluídas recebem a última alteração, o mesmo dia que o backfill usava até aqui.
+
+ALTER TABLE tasks ADD COLUMN completed_at TIMESTAMP(6);
+
+UPDATE tasks SET completed_at = COALESCE(updated_at, created_at) WHERE completed = TRUE;
@@ -0,0 +1,17 @@
+-- Usuários mais ativos de cada dia encerrado, no máximo todoapp.app.activityTopUsersPerDay por dia.
+-- O relatório soma estas linhas em vez de agrupar todos os usuários ativos do período, então lê no
+-- máximo dias x activityTopUsersPerDay linhas, não importa quantos usuários estiveram ativos.
+
+-- Total do usuário no dia, indexado para ler os primeiros do dia corrente em ordem
+ALTER TABLE activity_user_daily ADD COLUMN tasks_total BIGINT GENERATED ALWAYS AS (tasks_created + tasks_completed);
+
+CREATE INDEX idx_activity_user_daily_date_total ON activity_user_daily (activity_date, tasks_total DESC, user_id);
+
+CREATE TABLE activity_top_users_daily (
+    activity_date   DATE NOT NULL,
+    user_id         BIGINT NOT NULL,
+    tasks_created   BIGINT NOT NULL,
+    tasks_completed BIGINT NOT NULL,
+    CONSTRAINT pk_activity_top_users_daily PRIMARY KEY (activity_date, user_id),
+    CONSTRAINT fk_activity_top_users_daily_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
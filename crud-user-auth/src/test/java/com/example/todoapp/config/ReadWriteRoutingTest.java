@@ -0,0 +1,112 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.domain.User;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.service.RoleRegistry;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento entre o primário (tododb) e a réplica (um H2 separado, sem replicação)
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "replica"})
+class ReadWriteRoutingTest {
+
+    private static final String PRIMARY = "TODODB";
+    private static final String REPLICA = "REPLICA";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${todoapp.app.replicaMaxLagMs}")
+    private long replicaMaxLagMs;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    /**
+     * Banco da conexão da transação corrente (o JdbcTemplate usa a mesma conexão do JPA)
+     */
+    private String database(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    /**
+     * Consulta sem cache: findById poderia responder do cache de segundo nível sem ir a nenhum banco
+     */
+    private boolean visible(TransactionTemplate transaction, User user) {
+        return transaction.execute(status -> userRepository.existsByUsername(user.getUsername()));
+    }
+
+    @Test
+    void transacaoSomenteLeituraUsaAReplica() {
+        User user = TestUsers.create(userRepository, roleRegistry);
+
+        assertThat(database(readOnly)).isEqualTo(REPLICA);
+        // O usuário foi gravado só no primário
+        assertThat(visible(readOnly, user)).isFalse();
+    }
+
+    @Test
+    void escritaUsaOPrimario() {
+        User user = TestUsers.create(userRepository, roleRegistry);
+
+        assertThat(database(readWrite)).isEqualTo(PRIMARY);
+        assertThat(visible(readWrite, user)).isTrue();
+    }
+
+    @Test
+    void leituraLogoDepoisDeUmaEscritaDoUsuarioUsaOPrimario() throws InterruptedException {
+        User writer = TestUsers.create(userRepository, roleRegistry);
+        User reader = TestUsers.create(userRepository, roleRegistry);
+
+        TestUsers.authenticate(writer);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update(
+                "UPDATE users SET updated_at = CURRENT_TIMESTAMP WHERE id = ?", writer.getId()));
+
+        assertThat(database(readOnly)).isEqualTo(PRIMARY);
+        assertThat(visible(readOnly, writer)).isTrue();
+
+        // Outro usuário, sem escrita recente, continua lendo da réplica
+        TestUsers.authenticate(reader);
+        assertThat(database(readOnly)).isEqualTo(REPLICA);
+
+        // Passado o atraso máximo tolerado, o próprio autor volta para a réplica
+        TestUsers.authenticate(writer);
+        Thread.sleep(replicaMaxLagMs + 200);
+        assertThat(database(readOnly)).isEqualTo(REPLICA);
+    }
+}
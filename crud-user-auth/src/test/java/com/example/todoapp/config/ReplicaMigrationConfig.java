@@ -0,0 +1,35 @@
+package com.example.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Aplica as migrações na réplica do perfil "replica" assim que o pool é criado, antes de qualquer
+ * transação somente leitura. O pool da réplica abre conexões somente leitura, então o Flyway usa
+ * uma conexão própria.
+ */
+@Configuration
+@Profile("replica")
+public class ReplicaMigrationConfig {
+
+    @Bean
+    public static BeanPostProcessor replicaMigration() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("replicaDataSource".equals(beanName)) {
+                    HikariDataSource replica = (HikariDataSource) bean;
+                    Flyway.configure()
+                            .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                            .load()
+                            .migrate();
+                }
+                return bean;
+            }
+        };
+    }
+}
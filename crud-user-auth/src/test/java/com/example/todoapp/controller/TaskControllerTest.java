@@ -0,0 +1,52 @@
+package com.example.todoapp.controller;
+
+import com.example.todoapp.domain.User;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.service.RoleRegistry;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.not;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Test
+    void criacaoIgnoraIdEVersaoEnviadosPeloCliente() throws Exception {
+        User user = TestUsers.create(userRepository, roleRegistry);
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+
+        mockMvc.perform(post("/api/tasks")
+                        .with(authentication(new UsernamePasswordAuthenticationToken(
+                                principal, null, principal.getAuthorities())))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\":2,\"version\":7,\"title\":\"Tarefa nova\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(not(2)))
+                .andExpect(jsonPath("$.version").value(0))
+                .andExpect(jsonPath("$.title").value("Tarefa nova"));
+    }
+}
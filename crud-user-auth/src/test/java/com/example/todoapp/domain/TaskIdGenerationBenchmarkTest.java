@@ -0,0 +1,118 @@
+package com.example.todoapp.domain;
+
+import com.example.todoapp.domain.enums.TaskPriority;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vazão de inserção de tarefas antes e depois das sequences pooled: o mesmo mapeamento de Task,
+ * com o id por IDENTITY (sobrescrito em benchmark/task-identity-orm.xml) ou pela sequence
+ * tasks_seq, cada um num H2 em memória próprio e com o lote JDBC de 50 da aplicação.
+ * Com IDENTITY o Hibernate executa cada INSERT na hora para obter o id, sem lote.
+ * <p>
+ * O H2 em memória não tem ida e volta pela rede, então a diferença de vazão aqui é pequena; o
+ * teste verifica a causa dela num banco remoto, a quantidade de comandos enviados.
+ * <p>
+ * Fica fora do mvn test (tag benchmark); rode com mvn -Pbenchmark test.
+ */
+@Tag("benchmark")
+class TaskIdGenerationBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(TaskIdGenerationBenchmarkTest.class);
+
+    private static final int TASKS = 5_000;
+    private static final int ROUNDS = 3;
+    private static final int BATCH_SIZE = 50;
+
+    @Test
+    void sequencePooledInsereEmLotes() {
+        Result identity = measure("identity", true);
+        Result pooled = measure("pooled", false);
+
+        logger.info("Inserção de {} tarefas: IDENTITY {}/s ({} comandos), sequence pooled {}/s ({} comandos)",
+                TASKS, identity.tasksPerSecond(), identity.statements(),
+                pooled.tasksPerSecond(), pooled.statements());
+
+        // IDENTITY: um comando por linha
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(TASKS);
+        // Pooled: um INSERT por lote e uma chamada à sequence a cada 50 ids
+        assertThat(pooled.statements()).isLessThanOrEqualTo(2L * TASKS / BATCH_SIZE + 2);
+    }
+
+    private record Result(long tasksPerSecond, long statements) {
+    }
+
+    /**
+     * Melhor de algumas rodadas, depois de uma rodada de aquecimento
+     */
+    private static Result measure(String database, boolean identity) {
+        try (SessionFactory sessionFactory = build(database, identity)) {
+            Long userId = sessionFactory.fromTransaction(session -> {
+                User user = new User("bench", "bench@example.com", "x");
+                session.persist(user);
+                return user.getId();
+            });
+
+            insert(sessionFactory, userId);
+            Statistics statistics = sessionFactory.getStatistics();
+            long best = Long.MAX_VALUE;
+            long statements = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                statistics.clear();
+                long start = System.nanoTime();
+                insert(sessionFactory, userId);
+                best = Math.min(best, System.nanoTime() - start);
+                statements = statistics.getPrepareStatementCount();
+            }
+            return new Result(TASKS * 1_000_000_000L / best, statements);
+        }
+    }
+
+    private static void insert(SessionFactory sessionFactory, Long userId) {
+        sessionFactory.inTransaction(session -> {
+            User user = session.getReference(User.class, userId);
+            for (int i = 0; i < TASKS; i++) {
+                Task task = new Task();
+                task.setTitle("Tarefa " + i);
+                task.setDescription("Descrição da tarefa " + i);
+                task.setPriority(TaskPriority.values()[i % 3]);
+                task.setUser(user);
+                session.persist(task);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                    user = session.getReference(User.class, userId);
+                }
+            }
+        });
+    }
+
+    private static SessionFactory build(String database, boolean identity) {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:bench_" + database + ";DB_CLOSE_DELAY=-1")
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE)
+                .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+        MetadataSources sources = new MetadataSources(registry)
+                .addAnnotatedClass(Task.class)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Role.class);
+        if (identity) {
+            sources.addResource("benchmark/task-identity-orm.xml");
+        }
+        return sources.buildMetadata().buildSessionFactory();
+    }
+}
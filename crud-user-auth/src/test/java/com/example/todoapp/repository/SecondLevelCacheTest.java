@@ -0,0 +1,86 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.domain.User;
+import com.example.todoapp.domain.enums.ERole;
+import com.example.todoapp.service.RoleRegistry;
+import com.example.todoapp.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A segunda leitura de um usuário ou de uma role sai do cache de segundo nível ou do cache de
+ * consultas, sem nenhum comando SQL
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, roleRegistry);
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void segundaBuscaPorUsernameSaiDoCacheDeConsultas() {
+        User first = userRepository.findByUsername(user.getUsername()).orElseThrow();
+        assertThat(first.getRoles()).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        statistics.clear();
+
+        User second = userRepository.findByUsername(user.getUsername()).orElseThrow();
+
+        assertThat(second.getRoles()).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void segundaBuscaPorIdSaiDoCacheDeSegundoNivel() {
+        userRepository.findById(user.getId()).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        statistics.clear();
+
+        userRepository.findById(user.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void segundaBuscaDeRolePorNomeSaiDoCacheDeConsultas() {
+        roleRepository.findByName(ERole.ROLE_USER).orElseThrow();
+        statistics.clear();
+
+        roleRepository.findByName(ERole.ROLE_USER).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.service.RoleRegistry;
+import com.example.todoapp.support.TestUsers;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Planos do H2 para as consultas de TaskRepository: o SQL gerado pelo Hibernate é capturado
+ * e passado ao EXPLAIN, que deve indicar o índice composto de cada consulta em vez de tableScan.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskRepositoryIndexUsageTest {
+
+    private static final Limit PAGE = Limit.of(11);
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCaptureCustomizer(SqlCapture sqlCapture) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlCapture);
+        }
+    }
+
+    /**
+     * Guarda o último SQL preparado pelo Hibernate
+     */
+    static class SqlCapture implements StatementInspector {
+        private volatile String last;
+
+        @Override
+        public String inspect(String sql) {
+            last = sql;
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private SqlCapture sqlCapture;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private Long userId;
+
+    @BeforeAll
+    void seed() {
+        User user = TestUsers.create(userRepository, roleRegistry);
+        userId = user.getId();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Task task = new Task();
+            task.setTitle("Tarefa " + i);
+            task.setCompleted(i % 3 == 0);
+            task.setPriority(TaskPriority.values()[i % 3]);
+            task.setDueDate(i % 4 == 0 ? null : LocalDateTime.now().plusHours(i - 150));
+            task.setCreatedAt(LocalDateTime.now());
+            task.setUser(user);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+        // Seletividade atualizada para o otimizador do H2
+        new JdbcTemplate(primaryDataSource).execute("ANALYZE");
+    }
+
+    /**
+     * Executa a consulta e devolve o plano do SQL que o Hibernate gerou para ela
+     */
+    private String plan(Consumer<TaskRepository> query) {
+        query.accept(taskRepository);
+        return new JdbcTemplate(primaryDataSource).queryForObject("EXPLAIN " + sqlCapture.last, String.class);
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertThat(plan)
+                .contains("PUBLIC." + index.toUpperCase() + ":")
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    void listagemPorEstadoUsaIndiceDeUsuarioEConclusao() {
+        assertUsesIndex(plan(r -> r.findPageByCompletedAndUser(false, userId, 0, PAGE)),
+                "idx_tasks_user_completed_due");
+    }
+
+    @Test
+    void listagemPorPrioridadeUsaIndiceDeUsuarioEPrioridade() {
+        assertUsesIndex(plan(r -> r.findPageByPriorityAndUser(TaskPriority.HIGH, userId, 0, PAGE)),
+                "idx_tasks_user_priority");
+    }
+
+    @Test
+    void atrasadasUsamIndiceDeVencimento() {
+        LocalDateTime now = LocalDateTime.now();
+        assertUsesIndex(plan(r -> r.findOverdueTasksByUser(userId, PAGE)), "idx_tasks_user_completed_due");
+        assertUsesIndex(plan(r -> r.findOverdueTasksByUserAfter(userId, now.minusDays(1), 0, PAGE)),
+                "idx_tasks_user_completed_due");
+        assertUsesIndex(plan(r -> r.countOverdueByUserId(userId)), "idx_tasks_user_completed_due");
+    }
+
+    @Test
+    void pendentesPorPrioridadeLeemNaOrdemDoIndice() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> plans = List.of(
+                plan(r -> r.findPendingTasksOrderByPriorityAndDueDateByUser(userId, PAGE)),
+                plan(r -> r.findPendingTasksByUserAfterDated(userId, 1, now, 0, PAGE)),
+                plan(r -> r.findPendingTasksByUserAfterUndated(userId, 1, 0, PAGE)));
+
+        for (String plan : plans) {
+            assertUsesIndex(plan, "idx_tasks_user_completed_rank_due");
+            // Sem etapa de ordenação: a página sai direto do índice
+            assertThat(plan).contains("/* index sorted */");
+        }
+    }
+
+    @Test
+    void listagensSemCriterioUsamIndiceDoUsuario() {
+        // Sem índice composto próprio: o índice da FK user_id já entrega as linhas por id
+        assertUsesIndex(plan(r -> r.findPageByUser(userId, 0, PAGE)), "fk_tasks_user_index_1");
+        assertUsesIndex(plan(r -> r.findPageByTitleLikeAndUser("%tarefa%", userId, 0, PAGE)),
+                "fk_tasks_user_index_1");
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.ActivityUserDaily;
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.ActiveUserCount;
+import com.example.todoapp.repository.ActivityTopUserDailyRepository;
+import com.example.todoapp.repository.ActivityUserDailyRepository;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ActivityRollupServiceTest {
+
+    @Autowired
+    private ActivityRollupService activityRollupService;
+
+    @Autowired
+    private ActivityUserDailyRepository activityUserDailyRepository;
+
+    @Autowired
+    private ActivityTopUserDailyRepository activityTopUserDailyRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${todoapp.app.activityTopUsersPerDay}")
+    private int topUsersPerDay;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    private Long create(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return taskService.createTask(task).getId();
+    }
+
+    private ActivityUserDaily today() {
+        return activityUserDailyRepository.findById(new ActivityUserDaily.Key(LocalDate.now(), user.getId()))
+                .orElseThrow();
+    }
+
+    @Test
+    void concluirDeNovoDepoisDeReabrirNaoContaOutraVez() {
+        Long toggled = create("Alternada");
+        Long completed = create("Concluída");
+        Long bulk = create("Em massa");
+
+        taskService.toggleTaskCompletion(toggled);
+        taskService.toggleTaskCompletion(toggled);
+        taskService.toggleTaskCompletion(toggled);
+
+        taskService.completeTask(completed);
+        taskService.toggleTaskCompletion(completed);
+        taskService.completeTask(completed);
+
+        taskService.setTasksCompleted(List.of(bulk), null, true);
+        taskService.setTasksCompleted(List.of(bulk), null, false);
+        taskService.setTasksCompleted(List.of(bulk), null, true);
+
+        assertThat(today().getTasksCreated()).isEqualTo(3);
+        assertThat(today().getTasksCompleted()).isEqualTo(3);
+    }
+
+    @Test
+    void backfillContaAsConclusoesComoOsTotaisIncrementais() {
+        Long reopened = create("Reaberta");
+        Long done = create("Feita");
+        taskService.toggleTaskCompletion(reopened);
+        taskService.toggleTaskCompletion(reopened);
+        taskService.completeTask(done);
+        ActivityUserDaily incremental = today();
+
+        activityRollupService.backfill(LocalDate.now(), LocalDate.now());
+
+        assertThat(today().getTasksCreated()).isEqualTo(incremental.getTasksCreated()).isEqualTo(2);
+        assertThat(today().getTasksCompleted()).isEqualTo(incremental.getTasksCompleted()).isEqualTo(2);
+    }
+
+    @Test
+    void diaEncerradoGuardaSoOsPrimeirosDoDia() {
+        LocalDate day = LocalDate.of(2001, 1, 1);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < topUsersPerDay + 2; i++) {
+            User active = TestUsers.create(userRepository, roleRegistry);
+            TestUsers.authenticate(active);
+            for (int t = 0; t <= i; t++) {
+                create("Tarefa " + t);
+            }
+            jdbcTemplate.update("UPDATE tasks SET created_at = ? WHERE user_id = ?", day.atTime(12, 0), active.getId());
+            users.add(active);
+        }
+
+        activityRollupService.backfill(day, day);
+
+        assertThat(activityTopUserDailyRepository.findByActivityDateBetween(day, day)).hasSize(topUsersPerDay);
+        int last = users.size() - 1;
+        assertThat(activityRollupService.mostActiveUsers(day, day, 3)).containsExactly(
+                new ActiveUserCount(users.get(last).getUsername(), last + 1, 0),
+                new ActiveUserCount(users.get(last - 1).getUsername(), last, 0),
+                new ActiveUserCount(users.get(last - 2).getUsername(), last - 1, 0));
+    }
+
+    @Test
+    void diaAbertoLeOsPrimeirosDoDiaPeloIndice() {
+        LocalDate today = LocalDate.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < topUsersPerDay + 2; i++) {
+            User active = TestUsers.create(userRepository, roleRegistry);
+            // Acima da atividade que os outros testes deixam no dia
+            jdbcTemplate.update("INSERT INTO activity_user_daily (activity_date, user_id, tasks_created, tasks_completed) "
+                    + "VALUES (?, ?, ?, 0)", today, active.getId(), 1_000_000L + i);
+            users.add(active);
+        }
+
+        List<ActiveUserCount> result = activityRollupService.mostActiveUsers(today, today, topUsersPerDay + 2);
+
+        assertThat(result).hasSize(topUsersPerDay);
+        assertThat(result.get(0)).isEqualTo(new ActiveUserCount(users.get(users.size() - 1).getUsername(),
+                1_000_000L + users.size() - 1, 0));
+        assertThat(result).extracting(ActiveUserCount::username)
+                .doesNotContain(users.get(0).getUsername(), users.get(1).getUsername());
+
+        // Mesma consulta de ActivityUserDailyRepository.findTopByActivityDate: lê só os primeiros em ordem
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT user_id FROM activity_user_daily "
+                + "WHERE activity_date = ? ORDER BY activity_date, tasks_total DESC, user_id LIMIT 10",
+                String.class, today);
+        assertThat(plan.toLowerCase()).contains("idx_activity_user_daily_date_total", "/* index sorted */");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Role;
+import com.example.todoapp.domain.enums.ERole;
+import com.example.todoapp.dto.UserDTO;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As roles vêm do registro carregado na inicialização: montar as roles de um cadastro não consulta o banco
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RoleRegistryTest {
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // Sem o cache de segundo nível, uma role buscada por id ou por nome iria ao banco
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    @Test
+    void resolveOsNomesDoCadastroSemConsultas() {
+        assertThat(roleRegistry.resolve(List.of("admin", "mod", "outra")))
+                .extracting(Role::getName)
+                .containsExactlyInAnyOrder(ERole.ROLE_ADMIN, ERole.ROLE_MODERATOR, ERole.ROLE_USER);
+        assertThat(roleRegistry.resolve(null)).extracting(Role::getName).containsExactly(ERole.ROLE_USER);
+        assertThat(roleRegistry.get(ERole.ROLE_ADMIN)).isSameAs(roleRegistry.get(ERole.ROLE_ADMIN));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void cadastroDeUsuarioNaoConsultaRoles() {
+        TestUsers.authenticate(TestUsers.create(userRepository, roleRegistry, "admin"));
+        statistics.clear();
+
+        String username = "cadastro" + System.nanoTime() % 1_000_000;
+        UserDTO request = new UserDTO(username, username + "@example.com", "senha123");
+        request.setRoles(Set.of("mod", "outra"));
+        UserDTO created = userService.createUser(request);
+
+        assertThat(created.getRoles()).containsExactlyInAnyOrder("ROLE_MODERATOR", "ROLE_USER");
+        assertThat(statistics.getEntityStatistics(Role.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getQueries()).noneMatch(query -> query.contains("Role"));
+    }
+}
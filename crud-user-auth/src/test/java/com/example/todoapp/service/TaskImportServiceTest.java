@@ -0,0 +1,75 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.payload.response.TaskImportResponse;
+import com.example.todoapp.repository.TaskRepository;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskImportServiceTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    @Test
+    void idEnviadoNaImportacaoEIgnorado() throws Exception {
+        User owner = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(owner);
+        Task task = new Task();
+        task.setTitle("Tarefa do dono");
+        Long ownerTaskId = taskService.createTask(task).getId();
+
+        User importer = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(importer);
+        String body = """
+                {"title":"Primeira"}
+                {"id":%d,"version":0,"title":"Tentativa de sobrescrever"}
+                {"title":"Terceira"}
+                """.formatted(ownerTaskId);
+
+        TaskImportResponse report = taskImportService.importNdjson(new StringReader(body));
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getRejected()).isZero();
+
+        Task ownerTask = taskRepository.findByIdAndUserId(ownerTaskId, owner.getId()).orElseThrow();
+        assertThat(ownerTask.getTitle()).isEqualTo("Tarefa do dono");
+
+        List<TaskDTO> imported = taskRepository.findPageByUser(importer.getId(), 0, Limit.of(10));
+        assertThat(imported).extracting(TaskDTO::title)
+                .containsExactly("Primeira", "Tentativa de sobrescrever", "Terceira");
+        assertThat(imported).extracting(TaskDTO::id).doesNotContain(ownerTaskId);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.dto.TaskFilter;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.service.search.TaskSearchIndex;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exclusões em massa retiram do índice de busca exatamente as tarefas apagadas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceBulkDeleteTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    private Long create(String title, TaskPriority priority) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setPriority(priority);
+        return taskService.createTask(task).getId();
+    }
+
+    private List<Long> indexed(User owner, String term) {
+        return taskSearchIndex.search(owner.getId(), term).stream().map(TaskSearchIndex.Hit::taskId).toList();
+    }
+
+    @Test
+    void exclusaoPorFiltroRetiraAsTarefasDoIndice() {
+        Long high = create("Planilha alta", TaskPriority.HIGH);
+        Long low = create("Planilha baixa", TaskPriority.LOW);
+
+        int deleted = taskService.deleteTasks(null, new TaskFilter(null, TaskPriority.HIGH, null));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(indexed(user, "planilha")).containsExactly(low).doesNotContain(high);
+    }
+
+    @Test
+    void exclusaoPorIdsSoAvisaAsTarefasDoUsuario() {
+        User other = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(other);
+        Long othersTask = create("Orçamento alheio", TaskPriority.MEDIUM);
+
+        TestUsers.authenticate(user);
+        Long own = create("Orçamento próprio", TaskPriority.MEDIUM);
+
+        int deleted = taskService.deleteTasks(List.of(own, othersTask), null);
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(indexed(user, "orcamento")).isEmpty();
+        assertThat(indexed(other, "orcamento")).containsExactly(othersTask);
+    }
+}
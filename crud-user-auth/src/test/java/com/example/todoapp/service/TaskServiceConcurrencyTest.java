@@ -0,0 +1,98 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.repository.TaskRepository;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Alterações concorrentes da mesma tarefa não se perdem: cada UPDATE atômico incrementa a versão
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TOGGLES_PER_THREAD = 25;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    private TaskDTO createTask() {
+        Task task = new Task();
+        task.setTitle("Tarefa disputada");
+        return TaskDTO.fromEntity(taskService.createTask(task));
+    }
+
+    private TaskDTO reload(Long id) {
+        return taskRepository.findDtoByIdAndUserId(id, user.getId()).orElseThrow();
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> action) throws Exception {
+        return TestUsers.runConcurrently(user, THREADS, action);
+    }
+
+    @Test
+    void alternanciasConcorrentesNaoPerdemAtualizacoes() throws Exception {
+        TaskDTO task = createTask();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+                taskService.toggleTaskCompletion(task.id());
+            }
+            return null;
+        });
+
+        int toggles = THREADS * TOGGLES_PER_THREAD;
+        TaskDTO result = reload(task.id());
+        assertThat(result.version()).isEqualTo(task.version() + toggles);
+        assertThat(result.completed()).isEqualTo(toggles % 2 == 1);
+    }
+
+    @Test
+    void conclusoesConcorrentesAlteramATarefaUmaUnicaVez() throws Exception {
+        TaskDTO task = createTask();
+
+        List<TaskDTO> results = runConcurrently(() -> taskService.completeTask(task.id()));
+
+        assertThat(results).allMatch(TaskDTO::completed);
+        TaskDTO result = reload(task.id());
+        assertThat(result.version()).isEqualTo(task.version() + 1);
+        assertThat(result.completed()).isTrue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.dto.TaskDTO;
+import com.example.todoapp.exception.TaskLimitExceededException;
+import com.example.todoapp.payload.response.TaskImportResponse;
+import com.example.todoapp.repository.TaskCounterRepository;
+import com.example.todoapp.repository.TaskRepository;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Criações e importações concorrentes do mesmo usuário não ultrapassam o limite de tarefas:
+ * a verificação trava o usuário até o commit do incremento dos contadores
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "todoapp.app.maxTasksPerUser=" + TaskServiceLimitConcurrencyTest.LIMIT)
+class TaskServiceLimitConcurrencyTest {
+
+    static final int LIMIT = 10;
+
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 5;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, roleRegistry);
+    }
+
+    /**
+     * @return quantas das tentativas criaram a tarefa
+     */
+    private int createTasks(int count) {
+        int created = 0;
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setTitle("Tarefa concorrente " + i);
+            try {
+                taskService.createTask(task);
+                created++;
+            } catch (TaskLimitExceededException e) {
+                // esperado depois de atingir o limite
+            }
+        }
+        return created;
+    }
+
+    private int importTasks(int count) throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"title\":\"Tarefa importada ").append(i).append("\"}\n");
+        }
+        TaskImportResponse report = taskImportService.importNdjson(new StringReader(body.toString()));
+        return (int) report.getImported();
+    }
+
+    private void assertLimitReached(List<Integer> created) {
+        assertThat(created.stream().mapToInt(Integer::intValue).sum()).isEqualTo(LIMIT);
+        List<TaskDTO> tasks = taskRepository.findPageByUser(user.getId(), 0, Limit.of(THREADS * TASKS_PER_THREAD));
+        assertThat(tasks).hasSize(LIMIT);
+        assertThat(taskCounterRepository.sumByUserId(user.getId())).isEqualTo(LIMIT);
+    }
+
+    @Test
+    void criacoesConcorrentesRespeitamOLimite() throws Exception {
+        List<Integer> created = TestUsers.runConcurrently(user, THREADS, () -> createTasks(TASKS_PER_THREAD));
+
+        assertLimitReached(created);
+    }
+
+    @Test
+    void importacaoConcorrenteComCriacoesRespeitaOLimite() throws Exception {
+        AtomicInteger thread = new AtomicInteger();
+
+        List<Integer> created = TestUsers.runConcurrently(user, THREADS, () ->
+                thread.getAndIncrement() % 2 == 0 ? importTasks(TASKS_PER_THREAD) : createTasks(TASKS_PER_THREAD));
+
+        assertLimitReached(created);
+    }
+}
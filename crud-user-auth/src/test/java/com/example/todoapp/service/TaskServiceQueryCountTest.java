@@ -0,0 +1,93 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.domain.enums.TaskPriority;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Quantidade de comandos SQL de cada operação sobre uma tarefa. O usuário corrente vem do
+ * SecurityContext, sem nenhum SELECT em users.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceQueryCountTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(user);
+
+        Task task = new Task();
+        task.setTitle("Revisar contagem de consultas");
+        task.setPriority(TaskPriority.HIGH);
+        taskId = taskService.createTask(task).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    @Test
+    void buscarTarefaExecutaUmSelect() {
+        taskService.findTaskById(taskId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void atualizarTarefaLeUmaVezEGrava() {
+        taskService.updateTask(taskId, null, task -> task.setTitle("Título alterado"));
+
+        // SELECT da tarefa e UPDATE com versão; sem mudança de estado ou prioridade, os contadores ficam
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void alternarConclusaoNaoLeATarefaAntes() {
+        taskService.toggleTaskCompletion(taskId);
+
+        // Marca da primeira conclusão, UPDATE atômico, SELECT do novo estado, dois contadores
+        // e os totais diários (geral e do usuário)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(7);
+    }
+
+    @Test
+    void excluirTarefa() {
+        taskService.deleteTask(taskId);
+
+        // SELECT do estado (para o contador), DELETE e o contador
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
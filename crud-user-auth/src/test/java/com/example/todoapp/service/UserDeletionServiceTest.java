@@ -0,0 +1,84 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.domain.Task;
+import com.example.todoapp.domain.User;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exclusão em blocos pequenos, para a conta precisar de vários DELETEs de tarefas
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "todoapp.app.userDeleteChunkSize=3")
+class UserDeletionServiceTest {
+
+    private static final String[] USER_TABLES = {"tasks", "task_counters", "activity_user_daily", "user_roles"};
+
+    @Autowired
+    private UserDeletionService userDeletionService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    private User createWithTasks(int tasks) {
+        User user = TestUsers.create(userRepository, roleRegistry);
+        TestUsers.authenticate(user);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Tarefa " + i);
+            taskService.createTask(task);
+        }
+        return user;
+    }
+
+    private Map<String, Integer> rowsOf(User user) {
+        Map<String, Integer> rows = new HashMap<>();
+        for (String table : USER_TABLES) {
+            rows.put(table, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Integer.class, user.getId()));
+        }
+        return rows;
+    }
+
+    @Test
+    void exclusaoEmVariosBlocosNaoTocaNasLinhasDeOutrosUsuarios() {
+        User other = createWithTasks(4);
+        User deleted = createWithTasks(10);
+        Map<String, Integer> othersRows = rowsOf(other);
+
+        long deletedTasks = userDeletionService.delete(deleted.getId());
+
+        assertThat(deletedTasks).isEqualTo(10);
+        assertThat(userRepository.existsById(deleted.getId())).isFalse();
+        assertThat(rowsOf(deleted)).allSatisfy((table, count) -> assertThat(count).as(table).isZero());
+        assertThat(userRepository.existsById(other.getId())).isTrue();
+        assertThat(rowsOf(other)).isEqualTo(othersRows).containsEntry("tasks", 4);
+    }
+}
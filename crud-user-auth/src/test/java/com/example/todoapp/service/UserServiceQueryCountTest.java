@@ -0,0 +1,89 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.dto.UserDTO;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uma página da listagem de usuários custa os mesmos comandos SQL qualquer que seja o tamanho:
+ * a página, a contagem e as roles de todos os usuários numa única consulta em lote
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServiceQueryCountTest {
+
+    private static final int MAX_STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 20; i++) {
+            TestUsers.create(userRepository, roleRegistry);
+        }
+        TestUsers.authenticate(TestUsers.create(userRepository, roleRegistry, "admin"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestUsers.clearAuthentication();
+    }
+
+    /**
+     * Comandos da listagem com o cache de segundo nível vazio, como numa página que nenhuma
+     * requisição leu ainda
+     */
+    private long statementsOf(Supplier<Page<UserDTO>> listing, int expectedUsers) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+        Page<UserDTO> page = listing.get();
+        assertThat(page.getContent()).hasSize(expectedUsers)
+                .allSatisfy(user -> assertThat(user.getRoles()).isNotEmpty());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void paginaDeUsuariosCarregaAsRolesEmLote() {
+        long small = statementsOf(() -> userService.getAllUsers(PageRequest.of(0, 5, Sort.by("id"))), 5);
+        long large = statementsOf(() -> userService.getAllUsers(PageRequest.of(0, 20, Sort.by("id"))), 20);
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+
+    @Test
+    void paginaDeUsuariosPorRoleCarregaAsRolesEmLote() {
+        long small = statementsOf(() -> userService.getUsersByRole("user", PageRequest.of(0, 5, Sort.by("id"))), 5);
+        long large = statementsOf(() -> userService.getUsersByRole("user", PageRequest.of(0, 20, Sort.by("id"))), 20);
+
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(MAX_STATEMENTS_PER_PAGE);
+    }
+}
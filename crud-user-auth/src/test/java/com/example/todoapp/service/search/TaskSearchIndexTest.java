@@ -0,0 +1,93 @@
+package com.example.todoapp.service.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskSearchIndexTest {
+
+    private final TaskSearchIndex index = new TaskSearchIndex(null);
+
+    @Test
+    void pontuaPrefixoTituloEDescricao() {
+        index.index(1L, 10L, "Relatório mensal", "Enviar ao cliente");
+        index.index(1L, 11L, "Revisar relatório", null);
+        index.index(1L, 12L, "Reunião", "Levar o relatório impresso");
+        index.index(2L, 13L, "Relatório de outro usuário", null);
+
+        assertThat(index.search(1L, "RELATORIO")).containsExactly(
+                new TaskSearchIndex.Hit(10L, 3),
+                new TaskSearchIndex.Hit(11L, 2),
+                new TaskSearchIndex.Hit(12L, 1));
+    }
+
+    @Test
+    void termoCurtoVerificaTodasAsTarefas() {
+        index.index(1L, 10L, "ab", "xy");
+        index.index(1L, 11L, "cd", "ab");
+
+        assertThat(index.search(1L, "ab")).containsExactly(
+                new TaskSearchIndex.Hit(10L, 3),
+                new TaskSearchIndex.Hit(11L, 1));
+    }
+
+    @Test
+    void termoNaoAtravessaTituloEDescricao() {
+        index.index(1L, 10L, "abc", "def");
+
+        assertThat(index.search(1L, "cde")).isEmpty();
+        assertThat(index.search(1L, "c d")).isEmpty();
+    }
+
+    @Test
+    void reindexarERemoverAtualizamAsListas() {
+        index.index(1L, 10L, "Comprar pão", null);
+        index.index(1L, 10L, "Comprar leite", null);
+        assertThat(index.search(1L, "pao")).isEmpty();
+        assertThat(index.search(1L, "leite")).containsExactly(new TaskSearchIndex.Hit(10L, 2));
+
+        index.remove(1L, 10L);
+        assertThat(index.search(1L, "leite")).isEmpty();
+    }
+
+    @Test
+    void trigramasRepetidosContamUmaVez() {
+        index.index(1L, 10L, "Banana", "anana anana");
+        index.index(1L, 11L, "Ananás", null);
+
+        assertThat(index.search(1L, "anana")).containsExactly(
+                new TaskSearchIndex.Hit(11L, 3), new TaskSearchIndex.Hit(10L, 2));
+
+        index.remove(1L, 10L);
+        assertThat(index.search(1L, "anana")).containsExactly(new TaskSearchIndex.Hit(11L, 3));
+    }
+
+    @Test
+    void tabelaLongEquivaleAUmMapa() {
+        LongTable<String> table = new LongTable<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(table.remove(id)).isEqualTo(expected.remove(id));
+            } else {
+                String text = "t" + i;
+                assertThat(table.put(id, text)).isEqualTo(expected.put(id, text));
+            }
+        }
+
+        assertThat(table.size()).isEqualTo(expected.size());
+        for (long id = 1; id <= 2_000; id++) {
+            assertThat(table.get(id)).isEqualTo(expected.get(id));
+        }
+        Map<Long, String> visited = new HashMap<>();
+        table.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.todoapp.support;
+
+import com.example.todoapp.domain.User;
+import com.example.todoapp.repository.UserRepository;
+import com.example.todoapp.security.services.UserDetailsImpl;
+import com.example.todoapp.service.RoleRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Usuários dos testes de integração. Os contextos de teste compartilham o mesmo H2 em memória,
+ * então cada teste cria seus próprios usuários com nomes únicos.
+ */
+public final class TestUsers {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private TestUsers() {
+    }
+
+    /**
+     * @param roles nomes aceitos no cadastro ("admin", "mod"); sem nenhum, só ROLE_USER
+     */
+    public static User create(UserRepository userRepository, RoleRegistry roleRegistry, String... roles) {
+        int n = SEQUENCE.incrementAndGet();
+        User user = new User("tester" + n, "tester" + n + "@example.com", "senha-nao-usada");
+        user.setRoles(roleRegistry.resolve(List.of(roles)));
+        return userRepository.save(user);
+    }
+
+    /**
+     * Autentica o usuário na thread corrente, como o AuthTokenFilter faria numa requisição
+     */
+    public static void authenticate(User user) {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    public static void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Executa a ação em várias threads liberadas ao mesmo tempo, cada uma autenticada como o usuário
+     * @return resultado de cada thread; a exceção de uma delas chega embrulhada em ExecutionException
+     */
+    public static <T> List<T> runConcurrently(User user, int threads, Callable<T> action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    authenticate(user);
+                    try {
+                        start.await();
+                        return action.call();
+                    } finally {
+                        clearAuthentication();
+                    }
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}